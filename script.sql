@@ -18,8 +18,10 @@ CREATE TABLE staffs (
     FOREIGN KEY (rol_id) REFERENCES roles(id)
 );
 
+CREATE SEQUENCE staffs_audit_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE staffs_audit (
-    id BIGINT IDENTITY(1,1) PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     action VARCHAR(255) NOT NULL,
     dni VARCHAR(8) NULL,
     name VARCHAR(255) NOT NULL,
@@ -39,7 +41,7 @@ CREATE TABLE plates (
     id BIGINT IDENTITY(1,1) PRIMARY KEY,
     active BIT NULL,
     description VARCHAR(255) NOT NULL,
-    image_base64 TEXT NULL,
+    image_hash VARCHAR(64) NULL,
     name VARCHAR(255) NOT NULL,
     price DECIMAL(38,2) NOT NULL,
     category_id BIGINT NOT NULL,
@@ -51,13 +53,17 @@ CREATE TABLE plates (
 CREATE TABLE tables (
     id BIGINT IDENTITY(1,1) PRIMARY KEY,
     number INT NOT NULL,
-    status VARCHAR(50) NOT NULL CHECK (status IN ('DISPONIBLE', 'ESPERANDO_PEDIDO', 'FALTA_ATENCION', 'FUERA_DE_SERVICIO', 'PEDIDO_ENTREGADO'))
+    status VARCHAR(50) NOT NULL CHECK (status IN ('DISPONIBLE', 'ESPERANDO_PEDIDO', 'FALTA_ATENCION', 'FUERA_DE_SERVICIO', 'PEDIDO_ENTREGADO')),
+    version BIGINT NOT NULL DEFAULT 0
 );
 
+CREATE SEQUENCE orders_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE orders (
-    id BIGINT IDENTITY(1,1) PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     dateandtime_order DATETIME2(6) NOT NULL,
     price_total DECIMAL(38,2) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
     status VARCHAR(50) NOT NULL CHECK (status IN ('CANCELADO', 'EN_PREPARACION', 'LISTO', 'PAGADO', 'PENDIENTE')),
     table_id BIGINT NOT NULL,
     staff_id VARCHAR(8) NOT NULL,
@@ -65,8 +71,12 @@ CREATE TABLE orders (
     FOREIGN KEY (table_id) REFERENCES tables(id)
 );
 
+CREATE INDEX idx_orders_status_date ON orders(status, dateandtime_order, id);
+
+CREATE SEQUENCE order_details_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE order_details (
-    id BIGINT IDENTITY(1,1) PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     notes VARCHAR(255) NULL,
     price_unit DECIMAL(38,2) NOT NULL,
     quantity INT NOT NULL,
@@ -76,3 +86,15 @@ CREATE TABLE order_details (
     FOREIGN KEY (plate_id) REFERENCES plates(id)
 );
 
+
+CREATE TABLE outbox_events (
+    id BIGINT IDENTITY(1,1) PRIMARY KEY,
+    destination VARCHAR(1000) NOT NULL,
+    coalesce_key VARCHAR(100) NULL,
+    origin VARCHAR(64) NULL,
+    payload TEXT NOT NULL,
+    created_at DATETIME2(6) NOT NULL,
+    published_at DATETIME2(6) NULL
+);
+
+CREATE INDEX idx_outbox_published_id ON outbox_events(published_at, id);
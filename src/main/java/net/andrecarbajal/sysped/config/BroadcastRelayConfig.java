@@ -0,0 +1,32 @@
+package net.andrecarbajal.sysped.config;
+
+import net.andrecarbajal.sysped.event.BroadcastRelay;
+import net.andrecarbajal.sysped.event.ClusterEvents;
+import net.andrecarbajal.sysped.event.NodeIdentity;
+import net.andrecarbajal.sysped.event.OutboxPollingRelay;
+import net.andrecarbajal.sysped.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class BroadcastRelayConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "sysped.broker.mode", havingValue = "outbox")
+    public BroadcastRelay outboxPollingRelay(OutboxEventRepository outboxEventRepository, NodeIdentity nodeIdentity,
+                                             @Value("${sysped.broker.gap-timeout:60s}") Duration gapTimeout) {
+        return new OutboxPollingRelay(outboxEventRepository, nodeIdentity, destination -> true, gapTimeout);
+    }
+
+    // el broker externo solo reparte a clientes STOMP; las cachés del servidor se invalidan vía outbox
+    @Bean
+    @ConditionalOnProperty(name = "sysped.broker.mode", havingValue = "relay")
+    public BroadcastRelay clusterEventsRelay(OutboxEventRepository outboxEventRepository, NodeIdentity nodeIdentity,
+                                             @Value("${sysped.broker.gap-timeout:60s}") Duration gapTimeout) {
+        return new OutboxPollingRelay(outboxEventRepository, nodeIdentity, ClusterEvents.DESTINATION::equals, gapTimeout);
+    }
+}
@@ -0,0 +1,42 @@
+package net.andrecarbajal.sysped.config;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+    private final DaoAuthenticationProvider delegate;
+    private final CredentialCache credentialCache;
+
+    public CachingAuthenticationProvider(UserDetailsService userDetailsService,
+                                         PasswordEncoder passwordEncoder,
+                                         CredentialCache credentialCache) {
+        this.delegate = new DaoAuthenticationProvider(userDetailsService);
+        this.delegate.setPasswordEncoder(passwordEncoder);
+        this.credentialCache = credentialCache;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication.getCredentials() instanceof String password)) {
+            return delegate.authenticate(authentication);
+        }
+        String username = authentication.getName();
+        Authentication cached = credentialCache.get(username, password);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = credentialCache.generation(username);
+        Authentication result = delegate.authenticate(authentication);
+        credentialCache.put(username, password, generation, result);
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+}
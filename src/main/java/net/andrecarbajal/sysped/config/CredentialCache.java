@@ -0,0 +1,91 @@
+package net.andrecarbajal.sysped.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import net.andrecarbajal.sysped.event.StaffChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class CredentialCache {
+    private static final String HMAC = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final Cache<String, Authentication> verified;
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+
+    public CredentialCache(MeterRegistry meterRegistry,
+                           @Value("${sysped.security.credential-cache.ttl:5m}") Duration ttl,
+                           @Value("${sysped.security.credential-cache.max-size:1000}") long maxSize) {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, HMAC);
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "credentials");
+    }
+
+    public Authentication get(String username, String password) {
+        Authentication cached = verified.getIfPresent(cacheKey(username, password));
+        if (cached == null) {
+            return null;
+        }
+        // cada acierto devuelve un token nuevo: el ProviderManager le copia los detalles de la petición
+        return UsernamePasswordAuthenticationToken.authenticated(cached.getPrincipal(), null, cached.getAuthorities());
+    }
+
+    public long generation(String username) {
+        return generations.getOrDefault(username, 0L);
+    }
+
+    public void put(String username, String password, long generation, Authentication result) {
+        // se guarda dentro de compute para que un evict concurrente no pueda colarse entre la comprobación y el put
+        generations.compute(username, (dni, current) -> {
+            if ((current == null ? 0L : current) == generation) {
+                verified.put(cacheKey(username, password), UsernamePasswordAuthenticationToken.authenticated(
+                        result.getPrincipal(), null, result.getAuthorities()));
+            }
+            return current;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStaffChanged(StaffChangedEvent event) {
+        evict(event.dni());
+    }
+
+    public void evict(String dni) {
+        generations.merge(dni, 1L, Long::sum);
+        verified.asMap().values().removeIf(authentication -> authentication.getName().equals(dni));
+    }
+
+    private String cacheKey(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(key);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo calcular la clave de credenciales", e);
+        }
+    }
+}
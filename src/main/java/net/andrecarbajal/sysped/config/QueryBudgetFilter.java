@@ -0,0 +1,71 @@
+package net.andrecarbajal.sysped.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+// el conteo se revisa cuando ya terminó el renderizado; con fail-on-exceed la respuesta se retiene
+// en memoria para poder sustituirla por un 500 antes de que llegue al cliente
+@Slf4j
+@Component
+public class QueryBudgetFilter extends OncePerRequestFilter {
+    public static final String STATEMENTS_ATTRIBUTE = QueryBudgetFilter.class.getName() + ".statements";
+
+    private final boolean failOnExceed;
+
+    public QueryBudgetFilter(@Value("${sysped.query-budget.fail-on-exceed:false}") boolean failOnExceed) {
+        this.failOnExceed = failOnExceed;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain) throws ServletException, IOException {
+        if (!failOnExceed) {
+            filterChain.doFilter(request, response);
+            check(request);
+            return;
+        }
+        ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, buffered);
+        String violation = check(request);
+        if (violation != null && !response.isCommitted()) {
+            response.reset();
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, violation);
+            return;
+        }
+        // sin cuerpo en memoria (HEAD o sendfile) el largo declarado debe llegar igual a la respuesta real
+        String declaredLength = buffered.getHeader(HttpHeaders.CONTENT_LENGTH);
+        if (buffered.getContentSize() == 0 && declaredLength != null && !response.isCommitted()) {
+            response.setHeader(HttpHeaders.CONTENT_LENGTH, declaredLength);
+        }
+        buffered.copyBodyToResponse();
+    }
+
+    private String check(HttpServletRequest request) {
+        if (!(request.getAttribute(QueryBudgetInterceptor.BUDGET_ATTRIBUTE) instanceof Integer budget)) {
+            return null;
+        }
+        int executed = QueryCountInspector.count();
+        request.setAttribute(STATEMENTS_ATTRIBUTE, executed);
+        if (executed <= budget) {
+            return null;
+        }
+        String violation = "Presupuesto de consultas excedido en " + request.getMethod() + " " + request.getRequestURI()
+                + ": " + executed + " > " + budget;
+        if (failOnExceed) {
+            log.error(violation);
+        } else {
+            log.warn(violation);
+        }
+        return violation;
+    }
+}
@@ -0,0 +1,25 @@
+package net.andrecarbajal.sysped.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+@Component
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+    public static final String BUDGET_ATTRIBUTE = QueryBudgetInterceptor.class.getName() + ".budget";
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+        QueryCountInspector.reset();
+        if (handler instanceof HandlerMethod method) {
+            QueryBudget budget = method.getMethodAnnotation(QueryBudget.class);
+            if (budget != null) {
+                request.setAttribute(BUDGET_ATTRIBUTE, budget.value());
+            }
+        }
+        return true;
+    }
+}
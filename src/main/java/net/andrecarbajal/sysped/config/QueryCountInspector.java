@@ -0,0 +1,21 @@
+package net.andrecarbajal.sysped.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class QueryCountInspector implements StatementInspector {
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static int count() {
+        return COUNT.get()[0];
+    }
+}
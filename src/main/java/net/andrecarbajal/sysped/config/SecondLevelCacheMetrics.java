@@ -0,0 +1,28 @@
+package net.andrecarbajal.sysped.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class SecondLevelCacheMetrics {
+    private final CacheManager secondLevelCacheManager;
+    private final MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void bind() {
+        for (String name : secondLevelCacheManager.getCacheNames()) {
+            secondLevelCacheManager.enableStatistics(name, true);
+            Cache<Object, Object> cache = secondLevelCacheManager.getCache(name);
+            JCacheMetrics.monitor(meterRegistry, cache);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package net.andrecarbajal.sysped.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class SequenceAligner {
+    static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "orders_seq", "orders",
+            "order_details_seq", "order_details",
+            "receipts_seq", "receipts",
+            "staffs_audit_seq", "staffs_audit"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void align() {
+        SEQUENCES.forEach(this::align);
+    }
+
+    private void align(String sequence, String table) {
+        Long nextValue;
+        try {
+            nextValue = jdbcTemplate.queryForObject("select max(next_val) from " + sequence, Long.class);
+        } catch (BadSqlGrammarException e) {
+            return;
+        }
+
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+        long required = maxId + ALLOCATION_SIZE;
+        if (maxId > 0 && (nextValue == null || nextValue < required)) {
+            jdbcTemplate.update("delete from " + sequence);
+            jdbcTemplate.update("insert into " + sequence + " (next_val) values (?)", required);
+            log.info("Secuencia {} ajustada a {} (id máximo en {}: {})", sequence, required, table, maxId);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package net.andrecarbajal.sysped.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Component
+public class SlowConsumerGuard implements WebSocketHandlerDecoratorFactory, ExecutorChannelInterceptor {
+    private final int maxPendingPerSession;
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> pending = new ConcurrentHashMap<>();
+
+    private final DistributionSummary queueDepth;
+    private final Counter droppedCounter;
+    private final Counter evictedCounter;
+
+    public SlowConsumerGuard(MeterRegistry meterRegistry,
+                             @Value("${sysped.websocket.max-pending-per-session:200}") int maxPendingPerSession) {
+        this.maxPendingPerSession = maxPendingPerSession;
+        this.queueDepth = DistributionSummary.builder("sysped.websocket.session.queue.depth").register(meterRegistry);
+        this.droppedCounter = Counter.builder("sysped.websocket.messages.dropped").register(meterRegistry);
+        this.evictedCounter = Counter.builder("sysped.websocket.sessions.evicted").register(meterRegistry);
+        Gauge.builder("sysped.websocket.session.queue.max", pending, SlowConsumerGuard::maxDepth).register(meterRegistry);
+        Gauge.builder("sysped.websocket.sessions", sessions, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    @NonNull
+    public WebSocketHandler decorate(@NonNull WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(@NonNull WebSocketSession session) throws Exception {
+                sessions.put(session.getId(), session);
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(@NonNull WebSocketSession session, @NonNull CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                pending.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null || !sessions.containsKey(sessionId)) {
+            return message;
+        }
+        int depth = pending.computeIfAbsent(sessionId, id -> new AtomicInteger()).incrementAndGet();
+        queueDepth.record(depth);
+        if (depth > maxPendingPerSession) {
+            pending.get(sessionId).decrementAndGet();
+            droppedCounter.increment();
+            evict(sessionId, depth);
+            return null;
+        }
+        return message;
+    }
+
+    @Override
+    public void afterSendCompletion(@NonNull Message<?> message, @NonNull MessageChannel channel, boolean sent, Exception ex) {
+        // si el executor rechazó la tarea, afterMessageHandled nunca llegará
+        if (ex != null || !sent) {
+            release(message);
+        }
+    }
+
+    @Override
+    public void afterMessageHandled(@NonNull Message<?> message, @NonNull MessageChannel channel,
+                                    @NonNull MessageHandler handler, Exception ex) {
+        release(message);
+    }
+
+    private void release(Message<?> message) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        AtomicInteger depth = sessionId != null ? pending.get(sessionId) : null;
+        if (depth != null) {
+            depth.decrementAndGet();
+        }
+    }
+
+    private void evict(String sessionId, int depth) {
+        WebSocketSession session = sessions.remove(sessionId);
+        if (session == null) {
+            return;
+        }
+        evictedCounter.increment();
+        log.warn("Cerrando sesión WebSocket lenta {} con {} mensajes pendientes", sessionId, depth);
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            log.debug("Error al cerrar la sesión {}: {}", sessionId, e.getMessage());
+        }
+    }
+
+    private static double maxDepth(Map<String, AtomicInteger> pending) {
+        int max = 0;
+        for (AtomicInteger depth : pending.values()) {
+            max = Math.max(max, depth.get());
+        }
+        return max;
+    }
+}
@@ -0,0 +1,81 @@
+package net.andrecarbajal.sysped.config;
+
+import net.andrecarbajal.sysped.event.OrderTopics;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+@Component
+public class TopicAccessInterceptor implements ChannelInterceptor {
+    private static final Map<String, Set<String>> ROLES_BY_TOPIC = Map.of(
+            OrderTopics.KITCHEN, Set.of("ROLE_ADMINISTRADOR", "ROLE_JEFE", "ROLE_COCINERO"),
+            OrderTopics.CASHIER, Set.of("ROLE_ADMINISTRADOR", "ROLE_JEFE", "ROLE_CAJERO"));
+    private static final Pattern STATION = Pattern.compile(Pattern.quote(OrderTopics.KITCHEN + "/station-") + "\\d+");
+    private static final List<String> RESTRICTED_PREFIXES = List.of("/topic/orders", "/topic/kitchen");
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.SUBSCRIBE) {
+            return message;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (!canRead(destination, SimpMessageHeaderAccessor.getUser(message.getHeaders()))) {
+            throw new MessageDeliveryException(message, "Sin permiso para suscribirse a " + destination);
+        }
+        return message;
+    }
+
+    public static boolean canRead(String destination, Principal user) {
+        if (destination == null || isPattern(destination)) {
+            return false;
+        }
+        Set<String> roles = STATION.matcher(destination).matches()
+                ? ROLES_BY_TOPIC.get(OrderTopics.KITCHEN)
+                : ROLES_BY_TOPIC.get(destination);
+        if (roles != null) {
+            return hasAnyRole(user, roles);
+        }
+        // bajo los prefijos de pedidos solo vale la lista exacta de arriba
+        for (String prefix : RESTRICTED_PREFIXES) {
+            if (destination.startsWith(prefix)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Patrones Ant del broker simple (/topic/**) y comodines de ActiveMQ (>) y RabbitMQ (#) en modo relay
+    private static boolean isPattern(String destination) {
+        for (char wildcard : new char[]{'*', '?', '{', '>', '#'}) {
+            if (destination.indexOf(wildcard) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasAnyRole(Principal user, Set<String> roles) {
+        if (!(user instanceof Authentication authentication)) {
+            return false;
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (roles.contains(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
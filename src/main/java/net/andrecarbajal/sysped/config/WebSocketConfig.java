@@ -1,17 +1,75 @@
 package net.andrecarbajal.sysped.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.time.Duration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+    private final SlowConsumerGuard slowConsumerGuard;
+    private final TopicAccessInterceptor topicAccessInterceptor;
+    private final String brokerMode;
+    private final String relayHost;
+    private final int relayPort;
+    private final String relayLogin;
+    private final String relayPasscode;
+    private final Duration sendTimeLimit;
+    private final DataSize sendBufferSizeLimit;
+    private final DataSize messageSizeLimit;
+    private final int inboundThreads;
+    private final int outboundThreads;
+    private final int queueCapacity;
+
+    public WebSocketConfig(SlowConsumerGuard slowConsumerGuard,
+                           TopicAccessInterceptor topicAccessInterceptor,
+                           @Value("${sysped.broker.mode:simple}") String brokerMode,
+                           @Value("${sysped.broker.relay-host:localhost}") String relayHost,
+                           @Value("${sysped.broker.relay-port:61613}") int relayPort,
+                           @Value("${sysped.broker.relay-login:guest}") String relayLogin,
+                           @Value("${sysped.broker.relay-passcode:guest}") String relayPasscode,
+                           @Value("${sysped.websocket.send-time-limit:10s}") Duration sendTimeLimit,
+                           @Value("${sysped.websocket.send-buffer-size-limit:512KB}") DataSize sendBufferSizeLimit,
+                           @Value("${sysped.websocket.message-size-limit:64KB}") DataSize messageSizeLimit,
+                           @Value("${sysped.websocket.inbound-threads:4}") int inboundThreads,
+                           @Value("${sysped.websocket.outbound-threads:8}") int outboundThreads,
+                           @Value("${sysped.websocket.queue-capacity:1000}") int queueCapacity) {
+        this.slowConsumerGuard = slowConsumerGuard;
+        this.topicAccessInterceptor = topicAccessInterceptor;
+        this.brokerMode = brokerMode;
+        this.relayHost = relayHost;
+        this.relayPort = relayPort;
+        this.relayLogin = relayLogin;
+        this.relayPasscode = relayPasscode;
+        this.sendTimeLimit = sendTimeLimit;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.messageSizeLimit = messageSizeLimit;
+        this.inboundThreads = inboundThreads;
+        this.outboundThreads = outboundThreads;
+        this.queueCapacity = queueCapacity;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        if ("relay".equals(brokerMode)) {
+            config.enableStompBrokerRelay("/topic")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode);
+        } else {
+            config.enableSimpleBroker("/topic");
+        }
         config.setApplicationDestinationPrefixes("/app");
     }
 
@@ -19,4 +77,30 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws").setAllowedOriginPatterns("*").withSockJS();
     }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit((int) sendTimeLimit.toMillis())
+                .setSendBufferSizeLimit((int) sendBufferSizeLimit.toBytes())
+                .setMessageSizeLimit((int) messageSizeLimit.toBytes())
+                .addDecoratorFactory(slowConsumerGuard);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(inboundThreads)
+                .maxPoolSize(inboundThreads)
+                .queueCapacity(queueCapacity);
+        registration.interceptors(topicAccessInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(outboundThreads)
+                .maxPoolSize(outboundThreads)
+                .queueCapacity(queueCapacity);
+        registration.interceptors(slowConsumerGuard);
+    }
 }
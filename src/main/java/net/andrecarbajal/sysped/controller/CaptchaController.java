@@ -1,17 +1,16 @@
 package net.andrecarbajal.sysped.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
+import net.andrecarbajal.sysped.service.CaptchaImagePool;
 import net.andrecarbajal.sysped.service.CaptchaService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.ResponseBody;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.OutputStream;
 
@@ -20,31 +19,28 @@ import java.io.OutputStream;
 @RequiredArgsConstructor
 public class CaptchaController {
     private final CaptchaService captchaService;
+    private final CaptchaImagePool captchaImagePool;
 
     @GetMapping("/image")
-    public void generateCaptchaImage(HttpSession session, HttpServletResponse response)
+    public void generateCaptchaImage(HttpServletRequest request, HttpServletResponse response)
             throws IOException {
-        String captchaCode = (String) session.getAttribute("captchaCode");
-        if (captchaCode == null) {
-            captchaCode = captchaService.generateCaptchaCode();
-            session.setAttribute("captchaCode", captchaCode);
-        }
-        BufferedImage captchaImage = captchaService.generateCaptchaImage(captchaCode);
+        CaptchaImagePool.Challenge challenge = captchaImagePool.take();
+        ResponseCookie cookie = ResponseCookie.from(CaptchaService.COOKIE_NAME, captchaService.issueToken(challenge.code()))
+                .path("/login")
+                .maxAge(captchaService.getTtl())
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Strict")
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
         response.setContentType("image/png");
         response.setHeader("Cache-Control", "no-cache, no-store, must-revalidate");
         response.setHeader("Pragma", "no-cache");
         response.setDateHeader("Expires", 0);
+        response.setContentLength(challenge.png().length);
         OutputStream out = response.getOutputStream();
-        ImageIO.write(captchaImage, "png", out);
+        out.write(challenge.png());
         out.flush();
         out.close();
     }
-
-    @PostMapping("/refresh")
-    @ResponseBody
-    public void refreshCaptcha(HttpSession session) {
-        String newCaptchaCode = captchaService.generateCaptchaCode();
-        session.setAttribute("captchaCode", newCaptchaCode);
-    }
 }
-
@@ -1,16 +1,16 @@
 package net.andrecarbajal.sysped.controller;
 
 import lombok.RequiredArgsConstructor;
+import net.andrecarbajal.sysped.dto.FloorPlanDto;
 import net.andrecarbajal.sysped.model.Category;
 import net.andrecarbajal.sysped.model.Rol;
-import net.andrecarbajal.sysped.model.Staff;
 import net.andrecarbajal.sysped.service.CategoryService;
-import net.andrecarbajal.sysped.service.OrderService;
+import net.andrecarbajal.sysped.service.FloorPlanService;
 import net.andrecarbajal.sysped.service.RolService;
+import net.andrecarbajal.sysped.service.StaffPrincipal;
 import net.andrecarbajal.sysped.service.StaffService;
 import net.andrecarbajal.sysped.service.TableService;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -27,26 +27,18 @@ public class DashboardController {
     private final RolService rolService;
     private final CategoryService categoryService;
     private final TableService tableService;
-    private final OrderService orderService;
+    private final FloorPlanService floorPlanService;
 
     @GetMapping
-    public String dashboard(Model model) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-
-        String staff_name = this.staffService.findStaffByDni(auth.getName())
-                .map(Staff::getName)
-                .orElse("Unknown User");
+    public String dashboard(@AuthenticationPrincipal StaffPrincipal principal, Model model) {
+        String staff_name = principal != null ? principal.getName() : "Unknown User";
         model.addAttribute("staff_name", staff_name);
         return "dashboard";
     }
 
     @GetMapping("/personal_fragment")
-    public String personalFragment(Model model) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String dni = auth.getName();
-        String currentRol = this.staffService.findStaffByDni(dni)
-                .map(staff -> staff.getRol().getName().toUpperCase())
-                .orElse("");
+    public String personalFragment(@AuthenticationPrincipal StaffPrincipal principal, Model model) {
+        String currentRol = principal != null ? principal.getRol() : "";
         List<Rol> allRoles = this.rolService.findAllRol();
         List<Rol> filteredRoles = switch (currentRol) {
             case "JEFE" -> allRoles.stream()
@@ -72,20 +64,21 @@ public class DashboardController {
 
     @GetMapping("/mesas_fragment")
     public String mesasFragment(Model model) {
-        model.addAttribute("listaDeMesas", tableService.getOperativeTables());
+        FloorPlanDto floorPlan = floorPlanService.getFloorPlan();
+        model.addAttribute("listaDeMesas", floorPlan.getTables());
+        model.addAttribute("floorPlanVersion", floorPlan.getVersion());
         model.addAttribute("resumenMesas", tableService.getTableSummary());
         return "fragments/mesas";
     }
 
     @GetMapping("/cocinero_fragment")
-    public String cocineroFragment() {
+    public String cocineroFragment(Model model) {
+        model.addAttribute("categories", categoryService.findAllCategories());
         return "fragments/cocinero";
     }
 
     @GetMapping("/caja_fragment")
-    public String cajaFragment(Model model) {
-        String statusFilter = "PENDIENTE,EN_PREPARACION,LISTO";
-        model.addAttribute("pedidos", orderService.listOrders(statusFilter));
+    public String cajaFragment() {
         return "fragments/caja";
     }
 }
@@ -2,13 +2,17 @@ package net.andrecarbajal.sysped.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import net.andrecarbajal.sysped.config.QueryBudget;
 import net.andrecarbajal.sysped.dto.OrderCreateRequestDto;
 import net.andrecarbajal.sysped.dto.OrderDto;
+import net.andrecarbajal.sysped.dto.OrderPageDto;
 import net.andrecarbajal.sysped.dto.OrderStatusChangeRequestDto;
 import net.andrecarbajal.sysped.dto.PlateDto;
 import net.andrecarbajal.sysped.model.OrderStatus;
 import net.andrecarbajal.sysped.service.OrderService;
 import net.andrecarbajal.sysped.service.PlateService;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -21,6 +25,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -43,7 +48,12 @@ public class DashboardOrderController {
     }
 
     @GetMapping
-    public ResponseEntity<List<OrderDto>> listOrders(@RequestParam(required = false) String status) {
+    @QueryBudget(2)
+    public ResponseEntity<OrderPageDto> listOrders(@RequestParam(required = false) String status,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer limit) {
         try {
             String filter = status;
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -54,8 +64,10 @@ public class DashboardOrderController {
             if ((filter == null || filter.isBlank()) && isCocinero) {
                 filter = "PENDIENTE,EN_PREPARACION";
             }
-            List<OrderDto> list = orderService.listOrders(filter == null ? "ALL" : filter);
-            return ResponseEntity.ok(list);
+            OrderPageDto page = orderService.listOrders(filter == null ? "ALL" : filter, from, to, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -71,6 +83,8 @@ public class DashboardOrderController {
             return ResponseEntity.badRequest().body("Estado inválido: " + body.getStatus());
         } catch (IllegalStateException e) {
             return ResponseEntity.status(409).body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body("El pedido fue modificado por otro usuario, intente nuevamente");
         } catch (Exception e) {
             String msg = e.getMessage() != null ? e.getMessage() : "Error interno al actualizar pedido";
             return ResponseEntity.status(500).body(msg);
@@ -78,6 +92,7 @@ public class DashboardOrderController {
     }
 
     @GetMapping("/{orderId}")
+    @QueryBudget(1)
     public ResponseEntity<OrderDto> getOrder(@PathVariable Long orderId) {
         return orderService.getOrderById(orderId)
                 .map(ResponseEntity::ok)
@@ -85,6 +100,7 @@ public class DashboardOrderController {
     }
 
     @GetMapping("/table/{tableNumber}")
+    @QueryBudget(1)
     public ResponseEntity<OrderDto> getPendingOrderByTable(@PathVariable Integer tableNumber) {
         try {
             return orderService.getActiveOrderByTableNumber(tableNumber)
@@ -102,6 +118,8 @@ public class DashboardOrderController {
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException | IllegalStateException e) {
             return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -7,6 +7,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
 
@@ -31,11 +32,11 @@ public class DashboardPlateController {
     @ResponseBody
     public String updatePlate(@RequestParam Long id,
                               @RequestParam BigDecimal price,
-                              @RequestParam(required = false) String imageBase64,
+                              @RequestParam(required = false) MultipartFile image,
                               @RequestParam boolean active) {
         try {
-            String normalizedImage = (imageBase64 == null || imageBase64.trim().isEmpty()) ? null : imageBase64;
-            plateService.updatePlate(id, price, normalizedImage, active);
+            byte[] imageBytes = (image == null || image.isEmpty()) ? null : image.getBytes();
+            plateService.updatePlate(id, price, imageBytes, active);
             return "OK";
         } catch (Exception e) {
             return "ERROR: " + e.getMessage();
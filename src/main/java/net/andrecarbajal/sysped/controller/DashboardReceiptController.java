@@ -37,22 +37,6 @@ public class DashboardReceiptController {
                 return ResponseEntity.badRequest().body("ID de pedido requerido");
             }
 
-            OrderDto currentOrder = orderService.getOrderById(orderId)
-                    .orElseThrow(() -> new IllegalArgumentException("Pedido no encontrado: " + orderId));
-
-            OrderStatus currentStatus = currentOrder.getStatus();
-
-            if (newStatus == OrderStatus.PAGADO && currentStatus != OrderStatus.LISTO) {
-                return ResponseEntity.status(409).body("Solo se pueden marcar como PAGADO los pedidos en estado LISTO");
-            }
-
-            if (newStatus == OrderStatus.CANCELADO &&
-                    currentStatus != OrderStatus.PENDIENTE &&
-                    currentStatus != OrderStatus.EN_PREPARACION &&
-                    currentStatus != OrderStatus.LISTO) {
-                return ResponseEntity.status(409).body("No se puede cancelar un pedido en estado " + currentStatus);
-            }
-
             OrderDto updated = orderService.updateOrderStatus(orderId, newStatus);
             return ResponseEntity.ok(updated);
         } catch (IllegalArgumentException e) {
@@ -1,15 +1,22 @@
 package net.andrecarbajal.sysped.controller;
 
 import lombok.RequiredArgsConstructor;
+import net.andrecarbajal.sysped.config.QueryBudget;
+import net.andrecarbajal.sysped.dto.FloorPlanDto;
 import net.andrecarbajal.sysped.dto.TableDto;
+import net.andrecarbajal.sysped.dto.TableOverviewDto;
 import net.andrecarbajal.sysped.model.TableStatus;
+import net.andrecarbajal.sysped.service.FloorPlanService;
 import net.andrecarbajal.sysped.service.TableService;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -21,6 +28,29 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class DashboardTableController {
     private final TableService tableService;
+    private final FloorPlanService floorPlanService;
+
+    @GetMapping("/floor-plan")
+    public ResponseEntity<FloorPlanDto> getFloorPlan() {
+        FloorPlanDto floorPlan = floorPlanService.getFloorPlan();
+        return ResponseEntity.ok()
+                .eTag("fp-" + floorPlan.getVersion())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(floorPlan);
+    }
+
+    @GetMapping("/floor-plan/changes")
+    public ResponseEntity<FloorPlanDto> getFloorPlanChanges(@RequestParam long since) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(floorPlanService.getChangesSince(since));
+    }
+
+    @GetMapping("/overview")
+    @QueryBudget(2)
+    public ResponseEntity<List<TableOverviewDto>> getOverview(@RequestParam(required = false) List<Integer> numbers) {
+        return ResponseEntity.ok(tableService.getOverview(numbers));
+    }
 
     @GetMapping("/{tableNumber}/allowed-statuses")
     public ResponseEntity<List<String>> getAllowedStatuses(@PathVariable Integer tableNumber) {
@@ -46,6 +76,8 @@ public class DashboardTableController {
             return ResponseEntity.ok().build();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException | OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
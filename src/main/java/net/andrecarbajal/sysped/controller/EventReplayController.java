@@ -0,0 +1,35 @@
+package net.andrecarbajal.sysped.controller;
+
+import lombok.RequiredArgsConstructor;
+import net.andrecarbajal.sysped.config.TopicAccessInterceptor;
+import net.andrecarbajal.sysped.dto.ReplayDto;
+import net.andrecarbajal.sysped.event.ReplayBuffer;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.security.Principal;
+
+@RestController
+@RequestMapping("/dashboard/events")
+@RequiredArgsConstructor
+public class EventReplayController {
+    private final ReplayBuffer replayBuffer;
+
+    @GetMapping("/replay")
+    public ResponseEntity<ReplayDto> replay(@RequestParam String destination,
+                                            @RequestParam long epoch,
+                                            @RequestParam long after,
+                                            Principal principal) {
+        if (!TopicAccessInterceptor.canRead(destination, principal)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(replayBuffer.replay(destination, epoch, after));
+    }
+}
@@ -1,17 +1,57 @@
 package net.andrecarbajal.sysped.controller;
 
 import lombok.RequiredArgsConstructor;
-import net.andrecarbajal.sysped.dto.OrderDto;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import net.andrecarbajal.sysped.dto.OrderEventDto;
+import net.andrecarbajal.sysped.event.EventPublisher;
+import net.andrecarbajal.sysped.event.OrderTopics;
+import net.andrecarbajal.sysped.model.OrderStatus;
+import net.andrecarbajal.sysped.service.MenuItem;
+import net.andrecarbajal.sysped.service.MenuSnapshot;
+import net.andrecarbajal.sysped.service.MenuSnapshotService;
 import org.springframework.stereotype.Controller;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
 @Controller
 @RequiredArgsConstructor
 public class OrderWebSocketController {
-    private final SimpMessagingTemplate messagingTemplate;
+    private final EventPublisher eventPublisher;
+    private final MenuSnapshotService menuSnapshotService;
 
-    public void sendOrderUpdate(OrderDto orderDto) {
-        messagingTemplate.convertAndSend("/topic/order-updates", orderDto);
+    public void sendOrderEvent(OrderEventDto event) {
+        sendOrderEvent(event, Set.of());
+    }
+
+    public void sendOrderEvent(OrderEventDto event, Collection<Long> plateIds) {
+        List<String> destinations = new ArrayList<>();
+        destinations.add(OrderTopics.CASHIER);
+        if (concernsKitchen(event)) {
+            destinations.add(OrderTopics.KITCHEN);
+            for (Long categoryId : stations(plateIds)) {
+                destinations.add(OrderTopics.station(categoryId));
+            }
+        }
+        eventPublisher.publish(destinations, event);
     }
-}
 
+    private static boolean concernsKitchen(OrderEventDto event) {
+        return event.getType() != OrderEventDto.Type.STATUS_CHANGED
+                || event.getChanges().get("status") != OrderStatus.PAGADO;
+    }
+
+    private Set<Long> stations(Collection<Long> plateIds) {
+        MenuSnapshot menu = menuSnapshotService.current();
+        Set<Long> stations = new TreeSet<>();
+        for (Long plateId : plateIds) {
+            MenuItem item = menu.find(plateId);
+            if (item != null && item.categoryId() != null) {
+                stations.add(item.categoryId());
+            }
+        }
+        return stations;
+    }
+}
@@ -0,0 +1,126 @@
+package net.andrecarbajal.sysped.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import net.andrecarbajal.sysped.service.ImageStore;
+import net.andrecarbajal.sysped.service.PlateImageService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+@Controller
+@RequiredArgsConstructor
+public class PlateImageController {
+    private static final Duration IMMUTABLE_MAX_AGE = Duration.ofDays(365);
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final PlateImageService plateImageService;
+    private final ImageStore imageStore;
+
+    @GetMapping("/plates/{id}/image")
+    public void getImage(@PathVariable Long id,
+                         @RequestParam(required = false) String v,
+                         @RequestParam(defaultValue = "full") String size,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        ImageStore.Variant variant;
+        try {
+            variant = ImageStore.Variant.fromKey(size);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+
+        Optional<String> imageHash = plateImageService.findImageHash(id);
+        if (imageHash.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String hash = imageHash.get();
+        Path file = imageStore.resolve(hash, variant);
+        if (!Files.isReadable(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String etag = hash + "-" + variant.getKey();
+        CacheControl cacheControl = hash.equals(v)
+                ? CacheControl.maxAge(IMMUTABLE_MAX_AGE).cachePrivate().immutable()
+                : CacheControl.noCache().cachePrivate();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            long start = 0;
+            long end = length - 1;
+
+            String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+            String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+            if (rangeHeader != null && (ifRange == null || ifRange.equals("\"" + etag + "\""))) {
+                try {
+                    List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                    if (ranges.size() == 1) {
+                        start = ranges.get(0).getRangeStart(length);
+                        end = ranges.get(0).getRangeEnd(length);
+                        if (start >= length || start > end) {
+                            throw new IllegalArgumentException("Rango no satisfacible");
+                        }
+                        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                    }
+                } catch (IllegalArgumentException e) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+            }
+
+            response.setContentType(MediaType.IMAGE_JPEG_VALUE);
+            response.setContentLengthLong(end - start + 1);
+            if ("HEAD".equalsIgnoreCase(request.getMethod())) {
+                return;
+            }
+
+            // el conector NIO de Tomcat copia el archivo al socket con sendfile sin pasar por el heap
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, file.toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end + 1);
+                return;
+            }
+
+            WritableByteChannel output = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                position += channel.transferTo(position, end - position + 1, output);
+            }
+        }
+    }
+}
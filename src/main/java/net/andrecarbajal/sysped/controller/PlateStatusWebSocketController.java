@@ -3,19 +3,19 @@ package net.andrecarbajal.sysped.controller;
 import lombok.RequiredArgsConstructor;
 import net.andrecarbajal.sysped.dto.PlateDto;
 import net.andrecarbajal.sysped.dto.PlateStatusDto;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import net.andrecarbajal.sysped.event.EventPublisher;
 import org.springframework.stereotype.Controller;
 
 @Controller
 @RequiredArgsConstructor
 public class PlateStatusWebSocketController {
-    private final SimpMessagingTemplate messagingTemplate;
+    private final EventPublisher eventPublisher;
 
     public void sendPlateStatusUpdate(PlateStatusDto plateStatusDto) {
-        messagingTemplate.convertAndSend("/topic/plate-status", plateStatusDto);
+        eventPublisher.publish("/topic/plate-status", "plate-" + plateStatusDto.getId(), plateStatusDto);
     }
 
     public void sendPlateUpdate(PlateDto plateDto) {
-        messagingTemplate.convertAndSend("/topic/plate-updates", plateDto);
+        eventPublisher.publish("/topic/plate-updates", "plate-" + plateDto.getId(), plateDto);
     }
 }
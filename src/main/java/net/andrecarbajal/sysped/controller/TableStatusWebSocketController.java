@@ -24,8 +24,7 @@ public class TableStatusWebSocketController {
                 throw new IllegalArgumentException("Status cannot be null");
             }
 
-            TableDto updatedDto = tableService.updateTableStatus(dto.getNumber(), newStatus);
-            messagingTemplate.convertAndSend("/topic/table-status", updatedDto);
+            tableService.updateTableStatus(dto.getNumber(), newStatus);
         } catch (IllegalArgumentException e) {
             messagingTemplate.convertAndSend("/topic/table-errors", "Estado no válido: " + e.getMessage());
         } catch (Exception e) {
@@ -0,0 +1,22 @@
+package net.andrecarbajal.sysped.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import net.andrecarbajal.sysped.model.OrderStatus;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActiveOrderSummaryDto {
+    private Long id;
+    private Integer tableNumber;
+    private OrderStatus status;
+    private BigDecimal totalPrice;
+    private Long version;
+    private Long itemCount;
+}
@@ -0,0 +1,18 @@
+package net.andrecarbajal.sysped.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FloorPlanDto {
+    private long version;
+    private boolean full;
+    private List<TableDto> tables;
+}
@@ -16,6 +16,7 @@ import java.util.List;
 @AllArgsConstructor
 public class OrderDto {
     private Long id;
+    private Long version;
     private Integer tableNumber;
     private LocalDateTime dateAndTimeOrder;
     private OrderStatus status;
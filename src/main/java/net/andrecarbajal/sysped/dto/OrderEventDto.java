@@ -0,0 +1,25 @@
+package net.andrecarbajal.sysped.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEventDto {
+    private Long orderId;
+    private long version;
+    private Type type;
+    private Map<String, Object> changes;
+
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED,
+        ITEMS_CHANGED
+    }
+}
@@ -0,0 +1,17 @@
+package net.andrecarbajal.sysped.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPageDto {
+    private List<OrderDto> items;
+    private String nextCursor;
+}
@@ -16,6 +16,8 @@ public class PlateDto {
     private String name;
     private String description;
     private BigDecimal price;
-    private String imageBase64;
+    private String imageUrl;
+    private String thumbnailUrl;
     private Boolean active;
+    private Long categoryId;
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package net.andrecarbajal.sysped.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplayDto {
+    private long epoch;
+    private long seq;
+    private boolean complete;
+    private List<ReplayFrameDto> frames;
+}
@@ -0,0 +1,18 @@
+package net.andrecarbajal.sysped.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplayFrameDto {
+    private long seq;
+    private boolean batch;
+    @JsonRawValue
+    private String payload;
+}
@@ -0,0 +1,20 @@
+package net.andrecarbajal.sysped.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import net.andrecarbajal.sysped.model.TableStatus;
+
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TableOverviewDto {
+    private Integer number;
+    private TableStatus status;
+    private Set<TableStatus> allowedStatuses;
+    private ActiveOrderSummaryDto activeOrder;
+}
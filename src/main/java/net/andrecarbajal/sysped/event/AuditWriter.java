@@ -0,0 +1,321 @@
+package net.andrecarbajal.sysped.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import net.andrecarbajal.sysped.model.StaffAudit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class AuditWriter {
+    private static final Map<String, Class<?>> TYPES = Map.of(StaffAudit.class.getName(), StaffAudit.class);
+
+    private final EntityManager entityManager;
+    private final TransactionOperations transactionOperations;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<Object> queue;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final Path spillFile;
+    private final Path replayFile;
+    private final Path deadLetterFile;
+
+    private final Counter writtenCounter;
+    private final Counter spilledCounter;
+    private final Counter replayedCounter;
+    private final Counter deadLetteredCounter;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public AuditWriter(EntityManager entityManager,
+                       TransactionOperations transactionOperations,
+                       ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry,
+                       @Value("${sysped.audit.queue-capacity:10000}") int queueCapacity,
+                       @Value("${sysped.audit.batch-size:50}") int batchSize,
+                       @Value("${sysped.audit.linger:200ms}") Duration linger,
+                       @Value("${sysped.audit.spill-file:data/audit-spill.jsonl}") Path spillFile) {
+        this.entityManager = entityManager;
+        this.transactionOperations = transactionOperations;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+        this.spillFile = spillFile;
+        this.replayFile = spillFile.resolveSibling(spillFile.getFileName() + ".replay");
+        this.deadLetterFile = spillFile.resolveSibling(spillFile.getFileName() + ".dead");
+        Gauge.builder("sysped.audit.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        this.writtenCounter = Counter.builder("sysped.audit.written").register(meterRegistry);
+        this.spilledCounter = Counter.builder("sysped.audit.spilled").register(meterRegistry);
+        this.replayedCounter = Counter.builder("sysped.audit.replayed").register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("sysped.audit.dead-lettered").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "audit-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+        List<Object> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            spill(snapshot(remaining));
+        }
+    }
+
+    public void submit(Object record) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(record);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(record);
+            }
+        });
+    }
+
+    private void enqueue(Object record) {
+        if (!queue.offer(record)) {
+            log.warn("Cola de auditoría llena, guardando el registro en {}", spillFile);
+            spill(snapshot(List.of(record)));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${sysped.audit.replay-interval-ms:30000}")
+    public void replaySpilled() {
+        List<String> lines;
+        try {
+            synchronized (this) {
+                if (!Files.exists(replayFile)) {
+                    if (!Files.exists(spillFile)) {
+                        return;
+                    }
+                    Files.move(spillFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            lines = Files.readAllLines(replayFile, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.warn("No se pudo leer el archivo de auditoría pendiente: {}", e.getMessage());
+            return;
+        }
+        for (int from = 0; from < lines.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, lines.size());
+            List<String> recordLines = new ArrayList<>(to - from);
+            List<Object> records = new ArrayList<>(to - from);
+            for (String line : lines.subList(from, to)) {
+                try {
+                    records.add(fromJson(line));
+                    recordLines.add(line);
+                } catch (RuntimeException e) {
+                    log.error("Registro de auditoría ilegible, se aparta en {}: {}", deadLetterFile, e.getMessage());
+                    deadLetter(line);
+                }
+            }
+            int pending = replay(records, recordLines);
+            if (pending >= 0) {
+                List<String> remaining = new ArrayList<>(recordLines.subList(pending, recordLines.size()));
+                remaining.addAll(lines.subList(to, lines.size()));
+                spill(remaining);
+                break;
+            }
+        }
+        try {
+            Files.delete(replayFile);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar {}: {}", replayFile, e.getMessage());
+        }
+    }
+
+    // Devuelve el índice desde el que hay que volver a guardar en disco, o -1 si no quedó nada pendiente
+    private int replay(List<Object> records, List<String> recordLines) {
+        try {
+            persist(records);
+            replayedCounter.increment(records.size());
+            return -1;
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                log.warn("La base de datos sigue sin aceptar la auditoría: {}", e.getMessage());
+                return 0;
+            }
+        }
+        // un error permanente: se reintenta fila a fila para apartar solo las que nunca entrarán
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                persist(List.of(records.get(i)));
+                replayedCounter.increment();
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    log.warn("La base de datos sigue sin aceptar la auditoría: {}", e.getMessage());
+                    return i;
+                }
+                log.error("Registro de auditoría rechazado, se aparta en {}: {}", deadLetterFile, e.getMessage());
+                deadLetter(recordLines.get(i));
+            }
+        }
+        return -1;
+    }
+
+    // persist no pasa por la traducción de excepciones de Spring, así que se revisa la cadena de causas
+    private static boolean isTransient(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException
+                    || cause instanceof SQLNonTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void run() {
+        List<Object> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                collectWindow(batch);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                spill(snapshot(batch));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void collectWindow(List<Object> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + lingerNanos;
+        queue.drainTo(batch, batchSize - batch.size());
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Object next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    private void write(List<Object> batch) {
+        List<String> lines = snapshot(batch);
+        try {
+            persist(batch);
+            writtenCounter.increment(batch.size());
+        } catch (RuntimeException e) {
+            log.warn("No se pudo escribir la auditoría, se guarda en {}: {}", spillFile, e.getMessage());
+            spill(lines);
+        }
+    }
+
+    private void persist(List<Object> records) {
+        transactionOperations.executeWithoutResult(status -> records.forEach(entityManager::persist));
+    }
+
+    private void spill(List<String> lines) {
+        if (append(spillFile, lines)) {
+            spilledCounter.increment(lines.size());
+        }
+    }
+
+    private void deadLetter(String line) {
+        if (append(deadLetterFile, List.of(line))) {
+            deadLetteredCounter.increment();
+        }
+    }
+
+    private synchronized boolean append(Path file, List<String> lines) {
+        if (lines.isEmpty()) {
+            return false;
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.write(file, lines, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+            return true;
+        } catch (IOException e) {
+            log.error("Se perdieron {} registros de auditoría: {}", lines.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    private List<String> snapshot(List<Object> records) {
+        return records.stream().map(this::toJson).toList();
+    }
+
+    private String toJson(Object record) {
+        ObjectNode line = objectMapper.createObjectNode();
+        line.put("type", record.getClass().getName());
+        line.set("record", objectMapper.valueToTree(record));
+        return line.toString();
+    }
+
+    private Object fromJson(String line) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            Class<?> type = TYPES.get(node.path("type").asText());
+            if (type == null) {
+                throw new IllegalStateException("Tipo de auditoría desconocido: " + node.path("type").asText());
+            }
+            return objectMapper.treeToValue(node.get("record"), type);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package net.andrecarbajal.sysped.event;
+
+import net.andrecarbajal.sysped.model.OutboxEvent;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+final class BroadcastCoalescer {
+
+    record Frame(String destination, List<String> payloads, List<OutboxEvent> covered) {
+        String body() {
+            return payloads.size() == 1 ? payloads.get(0) : "[" + String.join(",", payloads) + "]";
+        }
+
+        boolean batched() {
+            return payloads.size() > 1;
+        }
+    }
+
+    private BroadcastCoalescer() {
+    }
+
+    static List<Frame> coalesce(List<OutboxEvent> events) {
+        Map<String, List<OutboxEvent>> byDestination = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            for (String destination : event.getDestinations()) {
+                byDestination.computeIfAbsent(destination, key -> new ArrayList<>()).add(event);
+            }
+        }
+
+        List<Frame> frames = new ArrayList<>(byDestination.size());
+        byDestination.forEach((destination, covered) -> {
+            Map<String, String> latest = new LinkedHashMap<>();
+            for (OutboxEvent event : covered) {
+                String key = event.getCoalesceKey() != null
+                        ? "key:" + event.getCoalesceKey()
+                        : "payload:" + event.getPayload();
+                latest.remove(key);
+                latest.put(key, event.getPayload());
+            }
+            frames.add(new Frame(destination, List.copyOf(latest.values()), covered));
+        });
+        return frames;
+    }
+}
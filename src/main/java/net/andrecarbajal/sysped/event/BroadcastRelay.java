@@ -0,0 +1,12 @@
+package net.andrecarbajal.sysped.event;
+
+import java.util.function.Consumer;
+
+public interface BroadcastRelay {
+
+    void start(Consumer<RelayedFrame> localDelivery);
+
+    void publish(RelayedFrame frame);
+
+    void stop();
+}
@@ -0,0 +1,109 @@
+package net.andrecarbajal.sysped.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.UUID;
+
+@Slf4j
+@Component
+public class ClusterEvents {
+    public static final String DESTINATION = "cluster:events";
+    private static final Map<String, Class<?>> TYPES = Map.of(
+            "plate-changed", PlateChangedEvent.class,
+            "table-status-changed", TableStatusChangedEvent.class,
+            "staff-changed", StaffChangedEvent.class);
+    private static final ThreadLocal<Boolean> REMOTE = new ThreadLocal<>();
+
+    private final EventPublisher eventPublisher;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public ClusterEvents(EventPublisher eventPublisher,
+                         ApplicationEventPublisher applicationEventPublisher,
+                         ObjectMapper objectMapper,
+                         @Value("${sysped.broker.mode:simple}") String brokerMode) {
+        this.eventPublisher = eventPublisher;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.objectMapper = objectMapper;
+        this.enabled = !"simple".equals(brokerMode);
+    }
+
+    public static boolean isRemote() {
+        return Boolean.TRUE.equals(REMOTE.get());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onPlateChanged(PlateChangedEvent event) {
+        forward("plate-changed", event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onTableStatusChanged(TableStatusChangedEvent event) {
+        forward("table-status-changed", event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onStaffChanged(StaffChangedEvent event) {
+        forward("staff-changed", event);
+    }
+
+    @EventListener
+    public void onRelayedFrame(RelayedFrame frame) {
+        if (!DESTINATION.equals(frame.destination())) {
+            return;
+        }
+        try {
+            JsonNode body = objectMapper.readTree(frame.body());
+            if (body.isArray()) {
+                body.forEach(this::deliver);
+            } else {
+                deliver(body);
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Evento de otro nodo ilegible: {}", e.getMessage());
+        }
+    }
+
+    private void forward(String type, Object event) {
+        if (!enabled || isRemote()) {
+            return;
+        }
+        // el id evita que el coalescer funda dos transiciones idénticas en una sola
+        eventPublisher.publish(DESTINATION, Map.of(
+                "id", UUID.randomUUID().toString(),
+                "type", type,
+                "event", event));
+    }
+
+    private void deliver(JsonNode envelope) {
+        Class<?> type = TYPES.get(envelope.path("type").asText());
+        if (type == null) {
+            log.warn("Tipo de evento de otro nodo desconocido: {}", envelope.path("type").asText());
+            return;
+        }
+        Object event;
+        try {
+            event = objectMapper.treeToValue(envelope.get("event"), type);
+        } catch (JsonProcessingException e) {
+            log.warn("Evento de otro nodo ilegible: {}", e.getMessage());
+            return;
+        }
+        REMOTE.set(Boolean.TRUE);
+        try {
+            applicationEventPublisher.publishEvent(event);
+        } finally {
+            REMOTE.remove();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package net.andrecarbajal.sysped.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import net.andrecarbajal.sysped.model.OutboxEvent;
+import net.andrecarbajal.sysped.repository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class EventPublisher {
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDispatcher outboxDispatcher;
+    private final ObjectMapper objectMapper;
+    private final NodeIdentity nodeIdentity;
+
+    public void publish(String destination, Object payload) {
+        publish(destination, null, payload);
+    }
+
+    public void publish(String destination, String coalesceKey, Object payload) {
+        save(List.of(destination), coalesceKey, payload);
+    }
+
+    public void publish(Collection<String> destinations, Object payload) {
+        save(destinations, null, payload);
+    }
+
+    private void save(Collection<String> destinations, String coalesceKey, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setDestinations(destinations);
+        event.setCoalesceKey(coalesceKey);
+        event.setOrigin(nodeIdentity.getId());
+        event.setPayload(toJson(payload));
+        outboxEventRepository.save(event);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            outboxDispatcher.enqueue(List.of(event));
+            return;
+        }
+        pendingEvents().add(event);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<OutboxEvent> pendingEvents() {
+        List<OutboxEvent> pending = (List<OutboxEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        List<OutboxEvent> created = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(EventPublisher.this);
+                if (status == STATUS_COMMITTED) {
+                    outboxDispatcher.enqueue(created);
+                }
+            }
+        });
+        return created;
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento", e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package net.andrecarbajal.sysped.event;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Component
+public class NodeIdentity {
+    private final String id;
+
+    public NodeIdentity(@Value("${sysped.broker.node-id:}") String configuredId) {
+        this.id = configuredId.isBlank() ? UUID.randomUUID().toString() : configuredId;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
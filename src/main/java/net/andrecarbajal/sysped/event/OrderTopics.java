@@ -0,0 +1,13 @@
+package net.andrecarbajal.sysped.event;
+
+public final class OrderTopics {
+    public static final String KITCHEN = "/topic/orders/kitchen";
+    public static final String CASHIER = "/topic/orders/caja";
+
+    private OrderTopics() {
+    }
+
+    public static String station(Long categoryId) {
+        return KITCHEN + "/station-" + categoryId;
+    }
+}
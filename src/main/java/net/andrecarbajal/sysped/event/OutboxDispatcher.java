@@ -0,0 +1,252 @@
+package net.andrecarbajal.sysped.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.andrecarbajal.sysped.model.OutboxEvent;
+import net.andrecarbajal.sysped.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class OutboxDispatcher {
+    private static final Duration STALE_AFTER = Duration.ofSeconds(10);
+    private static final Duration RETENTION = Duration.ofDays(1);
+    static final String BATCH_HEADER = "x-batch";
+    static final String SEQ_HEADER = "x-seq";
+    static final String EPOCH_HEADER = "x-epoch";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ReplayBuffer replayBuffer;
+    private final NodeIdentity nodeIdentity;
+    private final BroadcastRelay relay;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final BlockingQueue<OutboxEvent> queue;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final int batchSize;
+    private final long coalesceWindowNanos;
+
+    private final Timer publishLag;
+    private final Counter publishedCounter;
+    private final Counter rejectedCounter;
+    private final Counter savedCounter;
+    private final Counter relayedCounter;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public OutboxDispatcher(SimpMessagingTemplate messagingTemplate,
+                            OutboxEventRepository outboxEventRepository,
+                            ReplayBuffer replayBuffer,
+                            NodeIdentity nodeIdentity,
+                            Optional<BroadcastRelay> relay,
+                            ApplicationEventPublisher applicationEventPublisher,
+                            MeterRegistry meterRegistry,
+                            @Value("${sysped.outbox.queue-capacity:1000}") int queueCapacity,
+                            @Value("${sysped.outbox.batch-size:50}") int batchSize,
+                            @Value("${sysped.outbox.coalesce-window:50ms}") Duration coalesceWindow) {
+        this.messagingTemplate = messagingTemplate;
+        this.outboxEventRepository = outboxEventRepository;
+        this.replayBuffer = replayBuffer;
+        this.nodeIdentity = nodeIdentity;
+        this.relay = relay.orElse(null);
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.coalesceWindowNanos = coalesceWindow.toNanos();
+        Gauge.builder("sysped.outbox.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        this.publishLag = Timer.builder("sysped.outbox.publish.lag").register(meterRegistry);
+        this.publishedCounter = Counter.builder("sysped.outbox.published").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("sysped.outbox.rejected").register(meterRegistry);
+        this.savedCounter = Counter.builder("sysped.outbox.messages.saved").register(meterRegistry);
+        this.relayedCounter = Counter.builder("sysped.outbox.relayed").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (relay != null) {
+            relay.start(this::deliverRemote);
+        }
+        running = true;
+        worker = new Thread(this::run, "outbox-dispatcher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        worker.interrupt();
+        if (relay != null) {
+            relay.stop();
+        }
+    }
+
+    public void enqueue(Collection<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            if (!inFlight.add(event.getId())) {
+                continue;
+            }
+            if (!queue.offer(event)) {
+                inFlight.remove(event.getId());
+                rejectedCounter.increment();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${sysped.outbox.sweep-interval-ms:5000}")
+    public void sweepStranded() {
+        LocalDateTime staleBefore = LocalDateTime.now().minus(STALE_AFTER);
+        List<OutboxEvent> stranded = outboxEventRepository.findByPublishedAtIsNullAndOriginAndCreatedAtBeforeOrderByIdAsc(
+                nodeIdentity.getId(), staleBefore, Limit.of(queue.remainingCapacity()));
+        if (!stranded.isEmpty()) {
+            log.info("Reencolando {} eventos pendientes del outbox", stranded.size());
+            enqueue(stranded);
+        }
+    }
+
+    @Scheduled(cron = "0 0 * * * *")
+    public void purgePublished() {
+        outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(RETENTION));
+    }
+
+    private void run() {
+        List<OutboxEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                collectWindow(batch);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Error al publicar eventos del outbox: {}", e.getMessage());
+            } finally {
+                batch.forEach(event -> inFlight.remove(event.getId()));
+                batch.clear();
+            }
+        }
+    }
+
+    private void collectWindow(List<OutboxEvent> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + coalesceWindowNanos;
+        queue.drainTo(batch, batchSize - batch.size());
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            OutboxEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    private void dispatch(List<OutboxEvent> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        Set<OutboxEvent> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (BroadcastCoalescer.Frame frame : BroadcastCoalescer.coalesce(batch)) {
+            int frameSize = frame.batched() ? frame.payloads().size() : 0;
+            try {
+                if (!ClusterEvents.DESTINATION.equals(frame.destination())) {
+                    send(frame.destination(), frame.body(), frameSize);
+                }
+            } catch (MessagingException e) {
+                log.warn("No se pudo publicar en {}: {}", frame.destination(), e.getMessage());
+                failed.addAll(frame.covered());
+                continue;
+            }
+            relay(frame.destination(), frame.body(), frameSize);
+            savedCounter.increment(frame.covered().size() - 1);
+        }
+        // una fila con varios destinos solo se marca si salió por todos; si no, el barrido la reintenta entera
+        List<Long> sent = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            if (!failed.contains(event)) {
+                sent.add(event.getId());
+                publishLag.record(Duration.between(event.getCreatedAt(), now));
+            }
+        }
+        if (!sent.isEmpty()) {
+            outboxEventRepository.markPublished(sent, now);
+            publishedCounter.increment(sent.size());
+        }
+    }
+
+    private void relay(String destination, String body, int batchSize) {
+        if (relay == null) {
+            return;
+        }
+        try {
+            relay.publish(new RelayedFrame(nodeIdentity.getId(), destination, body, batchSize));
+        } catch (RuntimeException e) {
+            log.warn("No se pudo reenviar {} a otros nodos: {}", destination, e.getMessage());
+        }
+    }
+
+    private void deliverRemote(RelayedFrame frame) {
+        if (nodeIdentity.getId().equals(frame.origin())) {
+            return;
+        }
+        if (ClusterEvents.DESTINATION.equals(frame.destination())) {
+            applicationEventPublisher.publishEvent(frame);
+        } else {
+            send(frame.destination(), frame.body(), frame.batchSize());
+        }
+        relayedCounter.increment();
+    }
+
+    private void send(String destination, String body, int batchSize) {
+        long seq = replayBuffer.isEnabled() ? replayBuffer.append(destination, body, batchSize != 0) : 0;
+        messagingTemplate.send(destination, toMessage(body, seq, batchSize));
+    }
+
+    private Message<byte[]> toMessage(String body, long seq, int batchSize) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        if (seq != 0) {
+            accessor.setNativeHeader(SEQ_HEADER, String.valueOf(seq));
+            accessor.setNativeHeader(EPOCH_HEADER, String.valueOf(replayBuffer.getEpoch()));
+        }
+        if (batchSize != 0) {
+            accessor.setNativeHeader(BATCH_HEADER, String.valueOf(batchSize));
+        }
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(body.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+}
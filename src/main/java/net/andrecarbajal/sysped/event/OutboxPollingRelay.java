@@ -0,0 +1,115 @@
+package net.andrecarbajal.sysped.event;
+
+import lombok.extern.slf4j.Slf4j;
+import net.andrecarbajal.sysped.model.OutboxEvent;
+import net.andrecarbajal.sysped.repository.OutboxEventRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+// Los ids IDENTITY se asignan al insertar pero las transacciones confirman en cualquier orden:
+// cada id saltado queda como hueco y se vuelve a consultar hasta que aparece o vence gapTimeout.
+@Slf4j
+public class OutboxPollingRelay implements BroadcastRelay {
+    private static final int MAX_ROWS_PER_POLL = 500;
+    private static final int MAX_GAPS = 10_000;
+    private static final int MAX_GAPS_PER_QUERY = 1_000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final NodeIdentity nodeIdentity;
+    private final Predicate<String> destinations;
+    private final long gapTimeoutNanos;
+    private final Map<Long, Long> gaps = new LinkedHashMap<>();
+
+    private volatile Consumer<RelayedFrame> localDelivery;
+    private long cursor;
+
+    public OutboxPollingRelay(OutboxEventRepository outboxEventRepository, NodeIdentity nodeIdentity,
+                              Predicate<String> destinations, Duration gapTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.nodeIdentity = nodeIdentity;
+        this.destinations = destinations;
+        this.gapTimeoutNanos = gapTimeout.toNanos();
+    }
+
+    @Override
+    public synchronized void start(Consumer<RelayedFrame> localDelivery) {
+        this.cursor = outboxEventRepository.findMaxId();
+        this.localDelivery = localDelivery;
+    }
+
+    @Override
+    public void publish(RelayedFrame frame) {
+    }
+
+    @Override
+    public void stop() {
+        localDelivery = null;
+    }
+
+    @Scheduled(fixedDelayString = "${sysped.broker.poll-interval-ms:200}")
+    public synchronized void poll() {
+        Consumer<RelayedFrame> delivery = localDelivery;
+        if (delivery == null) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        List<OutboxEvent> rows = new ArrayList<>(lateRows());
+        for (OutboxEvent event : outboxEventRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(MAX_ROWS_PER_POLL))) {
+            for (long missing = Math.max(cursor + 1, event.getId() - MAX_GAPS); missing < event.getId(); missing++) {
+                gaps.put(missing, now);
+            }
+            cursor = event.getId();
+            rows.add(event);
+        }
+        expireGaps(now);
+
+        List<OutboxEvent> foreign = rows.stream()
+                .filter(event -> !nodeIdentity.getId().equals(event.getOrigin()))
+                .toList();
+        for (BroadcastCoalescer.Frame frame : BroadcastCoalescer.coalesce(foreign)) {
+            if (!destinations.test(frame.destination())) {
+                continue;
+            }
+            try {
+                delivery.accept(new RelayedFrame(frame.covered().get(0).getOrigin(), frame.destination(), frame.body(),
+                        frame.batched() ? frame.payloads().size() : 0));
+            } catch (RuntimeException e) {
+                log.warn("No se pudo reenviar eventos de otro nodo a {}: {}", frame.destination(), e.getMessage());
+            }
+        }
+    }
+
+    synchronized int pendingGaps() {
+        return gaps.size();
+    }
+
+    private List<OutboxEvent> lateRows() {
+        if (gaps.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = gaps.keySet().stream().limit(MAX_GAPS_PER_QUERY).toList();
+        List<OutboxEvent> late = outboxEventRepository.findByIdInOrderByIdAsc(ids);
+        late.forEach(event -> gaps.remove(event.getId()));
+        return late;
+    }
+
+    private void expireGaps(long now) {
+        Iterator<Long> firstSeen = gaps.values().iterator();
+        while (firstSeen.hasNext()) {
+            if (now - firstSeen.next() < gapTimeoutNanos && gaps.size() <= MAX_GAPS) {
+                return;
+            }
+            firstSeen.remove();
+        }
+    }
+}
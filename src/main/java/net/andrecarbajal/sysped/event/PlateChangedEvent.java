@@ -0,0 +1,4 @@
+package net.andrecarbajal.sysped.event;
+
+public record PlateChangedEvent(Long plateId) {
+}
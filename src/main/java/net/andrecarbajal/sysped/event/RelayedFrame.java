@@ -0,0 +1,4 @@
+package net.andrecarbajal.sysped.event;
+
+public record RelayedFrame(String origin, String destination, String body, int batchSize) {
+}
@@ -0,0 +1,97 @@
+package net.andrecarbajal.sysped.event;
+
+import net.andrecarbajal.sysped.dto.ReplayDto;
+import net.andrecarbajal.sysped.dto.ReplayFrameDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class ReplayBuffer {
+    private final int capacity;
+    private final boolean enabled;
+    private final long epoch = System.currentTimeMillis();
+    private final Map<String, TopicLog> logs = new ConcurrentHashMap<>();
+
+    // con un broker externo cada nodo recibe los frames de los demás con su propio seq y epoch:
+    // los clientes verían huecos falsos, así que en ese modo no se numera ni se reanuda
+    public ReplayBuffer(@Value("${sysped.replay.capacity:500}") int capacity,
+                        @Value("${sysped.broker.mode:simple}") String brokerMode) {
+        this.capacity = capacity;
+        this.enabled = !"relay".equals(brokerMode);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public long append(String destination, String body, boolean batch) {
+        return logs.computeIfAbsent(destination, key -> new TopicLog(capacity)).append(body, batch);
+    }
+
+    public ReplayDto replay(String destination, long clientEpoch, long after) {
+        if (!enabled) {
+            return ReplayDto.builder()
+                    .epoch(epoch)
+                    .seq(0)
+                    .complete(false)
+                    .frames(List.of())
+                    .build();
+        }
+        TopicLog log = logs.get(destination);
+        if (log == null) {
+            return ReplayDto.builder()
+                    .epoch(epoch)
+                    .seq(0)
+                    .complete(clientEpoch == epoch && after == 0)
+                    .frames(List.of())
+                    .build();
+        }
+        return log.replay(clientEpoch == epoch ? after : -1);
+    }
+
+    private final class TopicLog {
+        private final ReplayFrameDto[] ring;
+        private long lastSeq;
+
+        private TopicLog(int capacity) {
+            this.ring = new ReplayFrameDto[capacity];
+        }
+
+        private synchronized long append(String body, boolean batch) {
+            long seq = ++lastSeq;
+            ring[(int) (seq % ring.length)] = new ReplayFrameDto(seq, batch, body);
+            return seq;
+        }
+
+        private synchronized ReplayDto replay(long after) {
+            long oldest = Math.max(1, lastSeq - ring.length + 1);
+            if (after < oldest - 1 || after > lastSeq) {
+                return ReplayDto.builder()
+                        .epoch(epoch)
+                        .seq(lastSeq)
+                        .complete(false)
+                        .frames(List.of())
+                        .build();
+            }
+            List<ReplayFrameDto> frames = new ArrayList<>((int) (lastSeq - after));
+            for (long seq = after + 1; seq <= lastSeq; seq++) {
+                frames.add(ring[(int) (seq % ring.length)]);
+            }
+            return ReplayDto.builder()
+                    .epoch(epoch)
+                    .seq(lastSeq)
+                    .complete(true)
+                    .frames(frames)
+                    .build();
+        }
+    }
+}
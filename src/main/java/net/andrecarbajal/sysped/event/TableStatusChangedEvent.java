@@ -0,0 +1,6 @@
+package net.andrecarbajal.sysped.event;
+
+import net.andrecarbajal.sysped.model.TableStatus;
+
+public record TableStatusChangedEvent(Integer tableNumber, TableStatus from, TableStatus to) {
+}
@@ -1,14 +1,18 @@
 package net.andrecarbajal.sysped.mapper;
 
 import net.andrecarbajal.sysped.dto.OrderDto;
+import net.andrecarbajal.sysped.dto.OrderEventDto;
 import net.andrecarbajal.sysped.dto.OrderItemDto;
 import net.andrecarbajal.sysped.dto.PlateDto;
 import net.andrecarbajal.sysped.model.Order;
 import net.andrecarbajal.sysped.model.OrderDetails;
 import net.andrecarbajal.sysped.model.Plate;
+import net.andrecarbajal.sysped.service.PlateImageService;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class OrderMapper {
@@ -19,6 +23,7 @@ public class OrderMapper {
 
         return OrderDto.builder()
                 .id(order.getId())
+                .version(order.getVersion())
                 .tableNumber(order.getRestaurantTable().getNumber())
                 .dateAndTimeOrder(order.getDateandtimeOrder())
                 .status(order.getStatus())
@@ -27,6 +32,37 @@ public class OrderMapper {
                 .build();
     }
 
+    public static OrderEventDto toCreatedEvent(Order order) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("tableNumber", order.getRestaurantTable().getNumber());
+        changes.put("dateAndTimeOrder", order.getDateandtimeOrder());
+        changes.put("status", order.getStatus());
+        changes.put("totalPrice", order.getPriceTotal());
+        changes.put("items", toOrderItemDtoList(order.getDetails()));
+        return toEvent(order, OrderEventDto.Type.CREATED, changes);
+    }
+
+    public static OrderEventDto toStatusChangedEvent(Order order) {
+        return toEvent(order, OrderEventDto.Type.STATUS_CHANGED, Map.of("status", order.getStatus()));
+    }
+
+    public static OrderEventDto toItemsChangedEvent(Order order, List<OrderDetails> upserted, List<Long> removedIds) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("totalPrice", order.getPriceTotal());
+        changes.put("upsertedItems", toOrderItemDtoList(upserted));
+        changes.put("removedItemIds", removedIds);
+        return toEvent(order, OrderEventDto.Type.ITEMS_CHANGED, changes);
+    }
+
+    private static OrderEventDto toEvent(Order order, OrderEventDto.Type type, Map<String, Object> changes) {
+        return OrderEventDto.builder()
+                .orderId(order.getId())
+                .version(order.getVersion())
+                .type(type)
+                .changes(changes)
+                .build();
+    }
+
     public static List<OrderItemDto> toOrderItemDtoList(List<OrderDetails> details) {
         if (details == null) {
             return List.of();
@@ -43,6 +79,7 @@ public class OrderMapper {
         }
 
         return OrderItemDto.builder()
+                .id(detail.getId())
                 .plateId(detail.getPlate().getId())
                 .plate(toPlateDto(detail.getPlate()))
                 .quantity(detail.getQuantity())
@@ -62,8 +99,10 @@ public class OrderMapper {
                 .name(plate.getName())
                 .description(plate.getDescription())
                 .price(plate.getPrice())
-                .imageBase64(plate.getImageBase64())
+                .imageUrl(PlateImageService.imageUrl(plate.getId(), plate.getImageHash()))
+                .thumbnailUrl(PlateImageService.thumbnailUrl(plate.getId(), plate.getImageHash()))
                 .active(plate.isActive())
+                .categoryId(plate.getCategory() != null ? plate.getCategory().getId() : null)
                 .build();
     }
 }
\ No newline at end of file
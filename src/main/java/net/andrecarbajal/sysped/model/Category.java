@@ -1,5 +1,6 @@
 package net.andrecarbajal.sysped.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -9,10 +10,14 @@ import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import lombok.Getter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categories")
 @Table(name = "categories")
 @Getter
 public class Category {
@@ -23,9 +28,11 @@ public class Category {
     @Column(nullable = false, unique = true)
     private String name;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category-subcategories")
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Subcategory> subcategories;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category-plates")
     @OneToMany(mappedBy = "category")
     private List<Plate> plates;
 }
@@ -0,0 +1,54 @@
+package net.andrecarbajal.sysped.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Entity
+@Table(name = "outbox_events", indexes = @Index(name = "idx_outbox_published_id", columnList = "published_at, id"))
+@Getter
+@Setter
+public class OutboxEvent {
+    private static final String DESTINATION_SEPARATOR = ",";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // una fila por evento aunque vaya a varias audiencias; el dispatcher la reparte a cada destino
+    @Column(nullable = false, length = 1000)
+    private String destination;
+
+    @Column(name = "coalesce_key", length = 100)
+    private String coalesceKey;
+
+    @Column(length = 64)
+    private String origin;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    public List<String> getDestinations() {
+        return List.of(destination.split(DESTINATION_SEPARATOR));
+    }
+
+    public void setDestinations(Collection<String> destinations) {
+        this.destination = String.join(DESTINATION_SEPARATOR, destinations);
+    }
+}
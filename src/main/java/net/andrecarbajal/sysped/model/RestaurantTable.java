@@ -1,5 +1,6 @@
 package net.andrecarbajal.sysped.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -8,10 +9,16 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tables")
 @Table(name = "tables")
 @Getter
 @Setter
@@ -26,4 +33,8 @@ public class RestaurantTable {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 50)
     private TableStatus status = TableStatus.DISPONIBLE;
+
+    @Version
+    @ColumnDefault("0")
+    private long version;
 }
@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.time.OffsetDateTime;
 import lombok.Getter;
@@ -16,7 +17,8 @@ import lombok.Setter;
 @Setter
 public class StaffAudit {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "staffs_audit_seq")
+    @SequenceGenerator(name = "staffs_audit_seq", sequenceName = "staffs_audit_seq", allocationSize = 50)
     private Long id;
 
     @Column(length = 8)
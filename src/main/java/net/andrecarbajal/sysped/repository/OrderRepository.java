@@ -1,14 +1,55 @@
 package net.andrecarbajal.sysped.repository;
 
+import net.andrecarbajal.sysped.dto.ActiveOrderSummaryDto;
 import net.andrecarbajal.sysped.model.Order;
 import net.andrecarbajal.sysped.model.OrderStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    @EntityGraph(attributePaths = {"restaurantTable", "receipt", "details", "details.plate"})
     Optional<Order> findByRestaurantTable_NumberAndStatusIn(Integer tableNumber, Set<OrderStatus> statuses);
-}
\ No newline at end of file
+
+    @Query("""
+            select new net.andrecarbajal.sysped.dto.ActiveOrderSummaryDto(
+                o.id, t.number, o.status, o.priceTotal, o.version, coalesce(sum(d.quantity), 0))
+            from Order o
+            join o.restaurantTable t
+            left join o.details d
+            where o.status in :statuses
+            group by o.id, t.number, o.status, o.priceTotal, o.version
+            """)
+    List<ActiveOrderSummaryDto> findOrderSummaries(@Param("statuses") Collection<OrderStatus> statuses);
+
+    @EntityGraph(attributePaths = {"restaurantTable", "receipt", "details", "details.plate"})
+    Optional<Order> findWithDetailsById(Long id);
+
+    @EntityGraph(attributePaths = {"details", "details.plate"})
+    List<Order> findWithDetailsByIdIn(Collection<Long> ids);
+
+    @Query("""
+            select o from Order o
+            join fetch o.restaurantTable
+            left join fetch o.receipt
+            where o.status in :statuses
+              and o.dateandtimeOrder < :to
+              and (o.dateandtimeOrder > :afterDate or (o.dateandtimeOrder = :afterDate and o.id > :afterId))
+            order by o.dateandtimeOrder asc, o.id asc
+            """)
+    List<Order> findPage(@Param("statuses") Collection<OrderStatus> statuses,
+                         @Param("afterDate") LocalDateTime afterDate,
+                         @Param("afterId") Long afterId,
+                         @Param("to") LocalDateTime to,
+                         Limit limit);
+}
@@ -0,0 +1,37 @@
+package net.andrecarbajal.sysped.repository;
+
+import net.andrecarbajal.sysped.model.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    List<OutboxEvent> findByPublishedAtIsNullAndOriginAndCreatedAtBeforeOrderByIdAsc(String origin, LocalDateTime createdBefore,
+                                                                                      Limit limit);
+
+    List<OutboxEvent> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<OutboxEvent> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    @Query("select coalesce(max(e.id), 0) from OutboxEvent e")
+    long findMaxId();
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.publishedAt = :publishedAt where e.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxEvent e where e.publishedAt < :publishedBefore")
+    int deletePublishedBefore(@Param("publishedBefore") LocalDateTime publishedBefore);
+}
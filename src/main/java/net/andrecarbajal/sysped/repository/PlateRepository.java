@@ -1,9 +1,32 @@
 package net.andrecarbajal.sysped.repository;
 
+import jakarta.persistence.QueryHint;
 import net.andrecarbajal.sysped.model.Plate;
+import net.andrecarbajal.sysped.service.MenuItem;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface PlateRepository extends JpaRepository<Plate, Long> {
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Plate> findAll();
+
+    @Query("select new net.andrecarbajal.sysped.service.MenuItem(p.id, p.name, p.price, p.active, p.category.id) from Plate p")
+    List<MenuItem> findMenuItems();
+
+    @Query("select new net.andrecarbajal.sysped.service.MenuItem(p.id, p.name, p.price, p.active, p.category.id) from Plate p where p.id = :id")
+    Optional<MenuItem> findMenuItemById(@Param("id") Long id);
+
+    @Query("select p.imageHash from Plate p where p.id = :id")
+    Optional<String> findImageHashById(@Param("id") Long id);
+
+    boolean existsByImageHash(String imageHash);
 }
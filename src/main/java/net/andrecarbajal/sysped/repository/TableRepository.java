@@ -1,15 +1,30 @@
 package net.andrecarbajal.sysped.repository;
 
+import jakarta.persistence.QueryHint;
 import net.andrecarbajal.sysped.model.RestaurantTable;
 import net.andrecarbajal.sysped.model.TableStatus;
+import net.andrecarbajal.sysped.service.TableStatusCount;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TableRepository extends JpaRepository<RestaurantTable, Long> {
+    String BY_NUMBER_REGION = "tables-by-number";
+
     long countByStatus(TableStatus status);
 
+    @Query("select new net.andrecarbajal.sysped.service.TableStatusCount(t.status, count(t)) from RestaurantTable t group by t.status")
+    List<TableStatusCount> countGroupedByStatus();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = BY_NUMBER_REGION)
+    })
     Optional<RestaurantTable> findByNumber(Integer number);
 }
@@ -0,0 +1,90 @@
+package net.andrecarbajal.sysped.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class CaptchaImagePool {
+    private final CaptchaService captchaService;
+    private final BlockingQueue<Challenge> pool;
+
+    private final Counter renderedCounter;
+    private final Counter exhaustedCounter;
+
+    private volatile boolean running;
+    private Thread producer;
+
+    public CaptchaImagePool(CaptchaService captchaService,
+                            MeterRegistry meterRegistry,
+                            @Value("${sysped.captcha.pool-size:256}") int poolSize) {
+        this.captchaService = captchaService;
+        this.pool = new ArrayBlockingQueue<>(poolSize);
+        Gauge.builder("sysped.captcha.pool.size", pool, BlockingQueue::size).register(meterRegistry);
+        this.renderedCounter = Counter.builder("sysped.captcha.pool.rendered").register(meterRegistry);
+        this.exhaustedCounter = Counter.builder("sysped.captcha.pool.exhausted").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        producer = new Thread(this::run, "captcha-producer");
+        producer.setDaemon(true);
+        producer.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        producer.interrupt();
+    }
+
+    public Challenge take() {
+        Challenge challenge = pool.poll();
+        if (challenge != null) {
+            return challenge;
+        }
+        exhaustedCounter.increment();
+        return render(new CaptchaRenderer());
+    }
+
+    private void run() {
+        CaptchaRenderer renderer = new CaptchaRenderer();
+        while (running) {
+            try {
+                pool.put(render(renderer));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Error al generar captchas: {}", e.getMessage());
+                try {
+                    TimeUnit.SECONDS.sleep(1);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private Challenge render(CaptchaRenderer renderer) {
+        String code = captchaService.generateCaptchaCode();
+        Challenge challenge = new Challenge(code, renderer.render(code));
+        renderedCounter.increment();
+        return challenge;
+    }
+
+    public record Challenge(String code, byte[] png) {
+    }
+}
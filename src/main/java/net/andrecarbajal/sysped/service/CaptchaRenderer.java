@@ -0,0 +1,54 @@
+package net.andrecarbajal.sysped.service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// Reutiliza imagen y encoder entre llamadas: cada instancia debe usarse desde un solo hilo
+class CaptchaRenderer {
+    private static final int WIDTH = 160;
+    private static final int HEIGHT = 50;
+    private static final Font FONT = new Font("Consolas", Font.BOLD, 34);
+
+    private final BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+    private final ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(4096);
+
+    byte[] render(String code) {
+        Graphics2D g2d = image.createGraphics();
+        try {
+            g2d.setColor(Color.WHITE);
+            g2d.fillRect(0, 0, WIDTH, HEIGHT);
+
+            g2d.setFont(FONT);
+            g2d.setColor(Color.BLACK);
+            FontMetrics fm = g2d.getFontMetrics();
+            int x = (WIDTH - fm.stringWidth(code)) / 2;
+            int y = ((HEIGHT - fm.getHeight()) / 2) + fm.getAscent();
+            g2d.drawString(code, x, y);
+        } finally {
+            g2d.dispose();
+        }
+        return encode();
+    }
+
+    private byte[] encode() {
+        buffer.reset();
+        try (ImageOutputStream output = new MemoryCacheImageOutputStream(buffer)) {
+            writer.setOutput(output);
+            writer.write(new IIOImage(image, null, null));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo codificar el captcha", e);
+        } finally {
+            writer.reset();
+        }
+        return buffer.toByteArray();
+    }
+}
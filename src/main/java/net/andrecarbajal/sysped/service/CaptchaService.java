@@ -1,16 +1,47 @@
 package net.andrecarbajal.sysped.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.awt.*;
-import java.awt.image.BufferedImage;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
 import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
 
 @Service
 public class CaptchaService {
+    public static final String COOKIE_NAME = "captcha";
     private static final String CHARACTERS = "ABCDEFGHJKMNOPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz0123456789";
     private static final int CAPTCHA_LENGTH = 4;
+    private static final String HMAC = "HmacSHA256";
     private static final SecureRandom random = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Cache<String, Boolean> usedNonces;
+
+    public CaptchaService(@Value("${sysped.captcha.secret:}") String secret,
+                          @Value("${sysped.captcha.ttl:5m}") Duration ttl,
+                          @Value("${sysped.captcha.replay-cache-size:10000}") long replayCacheSize) {
+        byte[] keyBytes = secret.isBlank() ? randomBytes(32) : secret.getBytes(StandardCharsets.UTF_8);
+        this.key = new SecretKeySpec(keyBytes, HMAC);
+        this.ttl = ttl;
+        this.usedNonces = Caffeine.newBuilder()
+                .maximumSize(replayCacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
 
     public String generateCaptchaCode() {
         StringBuilder sb = new StringBuilder(CAPTCHA_LENGTH);
@@ -20,25 +51,58 @@ public class CaptchaService {
         return sb.toString();
     }
 
-    public BufferedImage generateCaptchaImage(String code) {
-        int width = 160;
-        int height = 50;
-        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        Graphics2D g2d = image.createGraphics();
+    public String issueToken(String code) {
+        long expiresAt = System.currentTimeMillis() + ttl.toMillis();
+        String nonce = ENCODER.encodeToString(randomBytes(12));
+        String issued = expiresAt + "." + nonce;
+        return issued + "." + sign(issued) + "." + sign(issued + "." + code);
+    }
 
-        g2d.setColor(Color.WHITE);
-        g2d.fillRect(0, 0, width, height);
+    public boolean verifyToken(String token, String answer) {
+        if (token == null || answer == null) {
+            return false;
+        }
+        String[] parts = token.split("\\.");
+        if (parts.length != 4) {
+            return false;
+        }
+        long expiresAt;
+        try {
+            expiresAt = Long.parseLong(parts[0]);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (System.currentTimeMillis() >= expiresAt) {
+            return false;
+        }
+        String issued = parts[0] + "." + parts[1];
+        // solo se quema el nonce de tokens emitidos aquí; uno falsificado no puede desplazar a los ya usados
+        if (!matches(sign(issued), parts[2])) {
+            return false;
+        }
+        if (usedNonces.asMap().putIfAbsent(parts[1], Boolean.TRUE) != null) {
+            return false;
+        }
+        return matches(sign(issued + "." + answer), parts[3]);
+    }
 
-        g2d.setColor(Color.LIGHT_GRAY);
+    private static boolean matches(String expected, String actual) {
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.US_ASCII), actual.getBytes(StandardCharsets.US_ASCII));
+    }
 
-        g2d.setFont(new Font("Consolas", Font.BOLD, 34));
-        g2d.setColor(Color.BLACK);
-        FontMetrics fm = g2d.getFontMetrics();
-        int x = (width - fm.stringWidth(code)) / 2;
-        int y = ((height - fm.getHeight()) / 2) + fm.getAscent();
-        g2d.drawString(code, x, y);
+    private String sign(String value) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(key);
+            return ENCODER.encodeToString(mac.doFinal(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo firmar el captcha", e);
+        }
+    }
 
-        g2d.dispose();
-        return image;
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
     }
 }
@@ -0,0 +1,53 @@
+package net.andrecarbajal.sysped.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.andrecarbajal.sysped.event.PlateChangedEvent;
+import net.andrecarbajal.sysped.event.TableStatusChangedEvent;
+import net.andrecarbajal.sysped.model.Category;
+import net.andrecarbajal.sysped.model.Plate;
+import net.andrecarbajal.sysped.model.RestaurantTable;
+import net.andrecarbajal.sysped.model.Subcategory;
+import net.andrecarbajal.sysped.repository.TableRepository;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogCache {
+    private final EntityManagerFactory entityManagerFactory;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlateChanged(PlateChangedEvent event) {
+        Cache cache = cache();
+        cache.evictEntityData(Plate.class, event.plateId());
+        cache.evictCollectionData(Category.class.getName() + ".plates");
+        cache.evictCollectionData(Subcategory.class.getName() + ".plates");
+    }
+
+    // los cambios de otros nodos llegan por ClusterEvents; el evento trae el número y no el id, se vacía la región entera
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTableStatusChanged(TableStatusChangedEvent event) {
+        Cache cache = cache();
+        cache.evictEntityData(RestaurantTable.class);
+        cache.evictQueryRegion(TableRepository.BY_NUMBER_REGION);
+    }
+
+    public void evictStale(ObjectOptimisticLockingFailureException conflict) {
+        if (conflict.getIdentifier() == null) {
+            return;
+        }
+        log.debug("Descartando {}#{} de la caché tras un conflicto de versión",
+                conflict.getPersistentClassName(), conflict.getIdentifier());
+        cache().evictEntityData(conflict.getPersistentClassName(), conflict.getIdentifier());
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+}
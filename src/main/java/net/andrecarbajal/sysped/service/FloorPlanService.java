@@ -0,0 +1,126 @@
+package net.andrecarbajal.sysped.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.andrecarbajal.sysped.dto.FloorPlanDto;
+import net.andrecarbajal.sysped.dto.TableDto;
+import net.andrecarbajal.sysped.event.TableStatusChangedEvent;
+import net.andrecarbajal.sysped.repository.TableRepository;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FloorPlanService {
+    private static final int MAX_RECENT_CHANGES = 256;
+
+    private final TableRepository tableRepository;
+
+    private volatile FloorPlanSnapshot snapshot;
+
+    public FloorPlanSnapshot current() {
+        FloorPlanSnapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    public FloorPlanDto getFloorPlan() {
+        FloorPlanSnapshot current = current();
+        return FloorPlanDto.builder()
+                .version(current.version())
+                .full(true)
+                .tables(current.tables())
+                .build();
+    }
+
+    public FloorPlanDto getChangesSince(long since) {
+        FloorPlanSnapshot current = current();
+        List<TableDto> changes = current.changesSince(since);
+        return FloorPlanDto.builder()
+                .version(current.version())
+                .full(changes == null)
+                .tables(changes != null ? changes : current.tables())
+                .build();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onStatusChanged(TableStatusChangedEvent event) {
+        FloorPlanSnapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+
+        TableDto changed = TableDto.builder()
+                .number(event.tableNumber())
+                .status(event.to())
+                .build();
+        snapshot = withChanges(current, List.of(changed));
+    }
+
+    // los eventos de otros nodos pueden llegar desordenados o perderse; la base de datos manda
+    @Scheduled(fixedDelayString = "${sysped.tables.reconcile-interval-ms:60000}",
+            initialDelayString = "${sysped.tables.reconcile-interval-ms:60000}")
+    public synchronized void reconcile() {
+        FloorPlanSnapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+
+        List<TableDto> actual = loadTables();
+        List<TableDto> cached = current.tables();
+        if (actual.size() != cached.size()) {
+            rebuild();
+            return;
+        }
+        List<TableDto> drifted = new ArrayList<>();
+        for (int i = 0; i < actual.size(); i++) {
+            if (!actual.get(i).getNumber().equals(cached.get(i).getNumber())) {
+                rebuild();
+                return;
+            }
+            if (!actual.get(i).equals(cached.get(i))) {
+                drifted.add(actual.get(i));
+            }
+        }
+        if (!drifted.isEmpty()) {
+            log.warn("Plano de mesas corregido contra la base de datos: {} mesas", drifted.size());
+            snapshot = withChanges(current, drifted);
+        }
+    }
+
+    public synchronized FloorPlanSnapshot rebuild() {
+        List<TableDto> tables = loadTables();
+        long version = snapshot == null ? System.currentTimeMillis() : snapshot.version() + 1;
+        FloorPlanSnapshot rebuilt = new FloorPlanSnapshot(version, tables, List.of());
+        snapshot = rebuilt;
+        return rebuilt;
+    }
+
+    private List<TableDto> loadTables() {
+        return tableRepository.findAll(Sort.by("id")).stream()
+                .map(table -> TableDto.builder()
+                        .number(table.getNumber())
+                        .status(table.getStatus())
+                        .build())
+                .toList();
+    }
+
+    private static FloorPlanSnapshot withChanges(FloorPlanSnapshot current, List<TableDto> changed) {
+        List<TableDto> tables = new ArrayList<>(current.tables());
+        List<FloorPlanSnapshot.Change> recentChanges = new ArrayList<>(current.recentChanges());
+        long version = current.version();
+        for (TableDto table : changed) {
+            tables.replaceAll(existing -> existing.getNumber().equals(table.getNumber()) ? table : existing);
+            recentChanges.add(new FloorPlanSnapshot.Change(++version, table));
+        }
+        while (recentChanges.size() > MAX_RECENT_CHANGES) {
+            recentChanges.remove(0);
+        }
+        return new FloorPlanSnapshot(version, List.copyOf(tables), List.copyOf(recentChanges));
+    }
+}
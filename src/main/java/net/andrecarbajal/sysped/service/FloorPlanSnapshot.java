@@ -0,0 +1,29 @@
+package net.andrecarbajal.sysped.service;
+
+import net.andrecarbajal.sysped.dto.TableDto;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public record FloorPlanSnapshot(long version, List<TableDto> tables, List<Change> recentChanges) {
+
+    public record Change(long version, TableDto table) {
+    }
+
+    public List<TableDto> changesSince(long since) {
+        if (since == version) {
+            return List.of();
+        }
+        if (since > version || recentChanges.isEmpty() || since < recentChanges.get(0).version() - 1) {
+            return null;
+        }
+        Map<Integer, TableDto> changed = new LinkedHashMap<>();
+        for (Change change : recentChanges) {
+            if (change.version() > since) {
+                changed.put(change.table().getNumber(), change.table());
+            }
+        }
+        return List.copyOf(changed.values());
+    }
+}
@@ -0,0 +1,177 @@
+package net.andrecarbajal.sysped.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+@Service
+public class ImageStore {
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    private static final float JPEG_QUALITY = 0.85f;
+    private static final long MAX_PIXELS = 40_000_000L;
+
+    private final Path root;
+
+    public ImageStore(@Value("${sysped.images.dir:data/images}") String directory) {
+        this.root = Path.of(directory).toAbsolutePath().normalize();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Variant {
+        FULL("full", 1024),
+        THUMB("thumb", 240);
+
+        private final String key;
+        private final int maxSize;
+
+        public static Variant fromKey(String key) {
+            for (Variant variant : values()) {
+                if (variant.key.equalsIgnoreCase(key)) {
+                    return variant;
+                }
+            }
+            throw new IllegalArgumentException("Tamaño de imagen inválido: " + key);
+        }
+    }
+
+    public record Stored(String hash, List<Path> created) {
+    }
+
+    public Stored store(byte[] original) {
+        BufferedImage source = read(original);
+        String hash = hash(original);
+        List<Path> created = new ArrayList<>();
+        try {
+            Files.createDirectories(root);
+            for (Variant variant : Variant.values()) {
+                Path target = resolve(hash, variant);
+                if (!Files.exists(target)) {
+                    write(scale(source, variant.getMaxSize()), target);
+                    created.add(target);
+                }
+            }
+        } catch (IOException e) {
+            delete(created);
+            throw new UncheckedIOException("No se pudo guardar la imagen", e);
+        }
+        return new Stored(hash, List.copyOf(created));
+    }
+
+    public void delete(List<Path> files) {
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo eliminar la imagen " + file.getFileName(), e);
+            }
+        }
+    }
+
+    public Path resolve(String hash, Variant variant) {
+        if (hash == null || !HASH_PATTERN.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Hash de imagen inválido");
+        }
+        return root.resolve(hash + "-" + variant.getKey() + ".jpg");
+    }
+
+    // las dimensiones se leen de la cabecera antes de decodificar para no reservar memoria por un archivo malicioso
+    private static BufferedImage read(byte[] original) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(original))) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Formato de imagen no soportado");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > MAX_PIXELS) {
+                    throw new IllegalArgumentException("La imagen supera el máximo de " + MAX_PIXELS + " píxeles");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Imagen inválida", e);
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int maxSize) {
+        double factor = Math.min(1.0, (double) maxSize / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * factor));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * factor));
+
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private void write(BufferedImage image, Path target) throws IOException {
+        Path temp = Files.createTempFile(root, "upload-", ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
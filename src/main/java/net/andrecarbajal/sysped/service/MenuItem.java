@@ -0,0 +1,9 @@
+package net.andrecarbajal.sysped.service;
+
+import java.math.BigDecimal;
+
+public record MenuItem(Long id, String name, BigDecimal price, Boolean active, Long categoryId) {
+    public boolean isAvailable() {
+        return Boolean.TRUE.equals(active);
+    }
+}
@@ -0,0 +1,9 @@
+package net.andrecarbajal.sysped.service;
+
+import java.util.Map;
+
+public record MenuSnapshot(long version, Map<Long, MenuItem> items) {
+    public MenuItem find(Long plateId) {
+        return items.get(plateId);
+    }
+}
@@ -0,0 +1,59 @@
+package net.andrecarbajal.sysped.service;
+
+import lombok.RequiredArgsConstructor;
+import net.andrecarbajal.sysped.event.PlateChangedEvent;
+import net.andrecarbajal.sysped.repository.PlateRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class MenuSnapshotService {
+    private final PlateRepository plateRepository;
+
+    private volatile MenuSnapshot snapshot;
+
+    public MenuSnapshot current() {
+        MenuSnapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    // un plato creado después del último rebuild se trae con una consulta por clave, sin recargar el menú
+    public MenuItem find(Long plateId) {
+        MenuItem item = current().find(plateId);
+        if (item != null || plateId == null) {
+            return item;
+        }
+        return plateRepository.findMenuItemById(plateId).map(this::add).orElse(null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlateChanged(PlateChangedEvent event) {
+        rebuild();
+    }
+
+    public synchronized MenuSnapshot rebuild() {
+        Map<Long, MenuItem> items = new HashMap<>();
+        for (MenuItem item : plateRepository.findMenuItems()) {
+            items.put(item.id(), item);
+        }
+        long version = snapshot == null ? 1 : snapshot.version() + 1;
+        MenuSnapshot rebuilt = new MenuSnapshot(version, Map.copyOf(items));
+        snapshot = rebuilt;
+        return rebuilt;
+    }
+
+    private synchronized MenuItem add(MenuItem item) {
+        MenuItem existing = snapshot.find(item.id());
+        if (existing != null) {
+            return existing;
+        }
+        Map<Long, MenuItem> items = new HashMap<>(snapshot.items());
+        items.put(item.id(), item);
+        snapshot = new MenuSnapshot(snapshot.version() + 1, Map.copyOf(items));
+        return item;
+    }
+}
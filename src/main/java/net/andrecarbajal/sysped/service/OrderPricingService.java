@@ -0,0 +1,38 @@
+package net.andrecarbajal.sysped.service;
+
+import lombok.RequiredArgsConstructor;
+import net.andrecarbajal.sysped.dto.OrderItemDto;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class OrderPricingService {
+    private final MenuSnapshotService menuSnapshotService;
+
+    public PricedOrder price(List<OrderItemDto> items) {
+        List<PricedLine> lines = new ArrayList<>(items.size());
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderItemDto item : items) {
+            MenuItem plate = menuSnapshotService.find(item.getPlateId());
+            if (plate == null) {
+                throw new IllegalArgumentException("Plato no encontrado: " + item.getPlateId());
+            }
+            if (!plate.isAvailable()) {
+                throw new IllegalStateException("El plato " + plate.name() + " no está disponible");
+            }
+            lines.add(new PricedLine(plate.id(), item.getQuantity(), plate.price(), item.getNotes()));
+            total = total.add(plate.price().multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        return new PricedOrder(lines, total);
+    }
+
+    public record PricedLine(Long plateId, int quantity, BigDecimal priceUnit, String notes) {
+    }
+
+    public record PricedOrder(List<PricedLine> lines, BigDecimal total) {
+    }
+}
@@ -4,11 +4,12 @@ import lombok.RequiredArgsConstructor;
 import net.andrecarbajal.sysped.controller.OrderWebSocketController;
 import net.andrecarbajal.sysped.dto.OrderCreateRequestDto;
 import net.andrecarbajal.sysped.dto.OrderDto;
+import net.andrecarbajal.sysped.dto.OrderItemDto;
+import net.andrecarbajal.sysped.dto.OrderPageDto;
 import net.andrecarbajal.sysped.mapper.OrderMapper;
 import net.andrecarbajal.sysped.model.Order;
 import net.andrecarbajal.sysped.model.OrderDetails;
 import net.andrecarbajal.sysped.model.OrderStatus;
-import net.andrecarbajal.sysped.model.Plate;
 import net.andrecarbajal.sysped.model.RestaurantTable;
 import net.andrecarbajal.sysped.model.Staff;
 import net.andrecarbajal.sysped.model.TableStatus;
@@ -16,22 +17,34 @@ import net.andrecarbajal.sysped.repository.OrderRepository;
 import net.andrecarbajal.sysped.repository.PlateRepository;
 import net.andrecarbajal.sysped.repository.StaffRepository;
 import net.andrecarbajal.sysped.repository.TableRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.util.Collections;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final LocalDateTime MIN_ORDER_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_ORDER_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
 
     private final OrderRepository orderRepository;
     private final TableRepository tableRepository;
@@ -39,6 +52,8 @@ public class OrderService {
     private final StaffRepository staffRepository;
     private final TableService tableService;
     private final OrderWebSocketController orderWebSocketController;
+    private final OrderPricingService orderPricingService;
+    private final RetryingTransitionExecutor transitionExecutor;
 
     @Transactional
     public OrderDto createOrder(OrderCreateRequestDto request) {
@@ -56,147 +71,198 @@ public class OrderService {
         order.setStaff(currentStaff);
         order.setStatus(OrderStatus.PENDIENTE);
 
-        BigDecimal totalPrice = BigDecimal.ZERO;
+        applyPricing(order, request.getItems());
 
-        for (var item : request.getItems()) {
-            Plate plate = plateRepository.findById(item.getPlateId())
-                    .orElseThrow(() -> new IllegalArgumentException("Plato no encontrado: " + item.getPlateId()));
+        Order savedOrder = orderRepository.save(order);
 
-            if (!Boolean.TRUE.equals(plate.isActive())) {
-                throw new IllegalStateException("El plato " + plate.getName() + " no está disponible");
-            }
+        tableService.followOrder(request.getTableNumber(), savedOrder.getStatus());
 
-            OrderDetails detail = new OrderDetails();
-            detail.setOrder(order);
-            detail.setPlate(plate);
-            detail.setQuantity(item.getQuantity());
-            detail.setPriceUnit(plate.getPrice());
-            detail.setNotes(item.getNotes());
+        try {
+            orderWebSocketController.sendOrderEvent(OrderMapper.toCreatedEvent(savedOrder), plateIds(savedOrder.getDetails()));
+        } catch (Exception ignored) {
+        }
 
-            order.addOrderDetail(detail);
+        return OrderMapper.toDto(savedOrder);
+    }
 
-            BigDecimal itemTotal = plate.getPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
-            totalPrice = totalPrice.add(itemTotal);
+    @Transactional(readOnly = true)
+    public OrderPageDto listOrders(String statusFilter, LocalDateTime from, LocalDateTime to, String cursor, Integer limit) {
+        Set<OrderStatus> statuses = parseStatusFilter(statusFilter);
+        if (statuses.isEmpty()) {
+            return OrderPageDto.builder().items(List.of()).build();
         }
 
-        order.setPriceTotal(totalPrice);
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        LocalDateTime afterDate = from != null ? from : MIN_ORDER_DATE;
+        long afterId = 0L;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                afterDate = LocalDateTime.parse(raw.substring(0, separator));
+                afterId = Long.parseLong(raw.substring(separator + 1));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Cursor inválido: " + cursor, e);
+            }
+        }
 
-        Order savedOrder = orderRepository.save(order);
+        List<Order> orders = orderRepository.findPage(statuses, afterDate, afterId,
+                to != null ? to : MAX_ORDER_DATE, Limit.of(pageSize + 1));
 
-        tableService.updateTableStatus(request.getTableNumber(), TableStatus.ESPERANDO_PEDIDO);
+        String nextCursor = null;
+        if (orders.size() > pageSize) {
+            orders = orders.subList(0, pageSize);
+            Order last = orders.getLast();
+            nextCursor = encodeCursor(last.getDateandtimeOrder(), last.getId());
+        }
 
-        try {
-            orderWebSocketController.sendOrderUpdate(OrderMapper.toDto(savedOrder));
-        } catch (Exception ignored) {
+        if (!orders.isEmpty()) {
+            orderRepository.findWithDetailsByIdIn(orders.stream().map(Order::getId).toList());
         }
 
-        return OrderMapper.toDto(savedOrder);
+        return OrderPageDto.builder()
+                .items(orders.stream().map(OrderMapper::toDto).toList())
+                .nextCursor(nextCursor)
+                .build();
     }
 
-    public List<OrderDto> listOrders(String statusFilter) {
-        List<Order> orders = orderRepository.findAll();
-        Stream<Order> stream = orders.stream();
-        if (statusFilter != null && !"ALL".equalsIgnoreCase(statusFilter)) {
-            String[] parts = statusFilter.split(",");
-            Set<OrderStatus> allowed = new HashSet<>();
-            for (String p : parts) {
-                String trimmed = p.trim();
-                if (trimmed.isEmpty()) continue;
-                allowed.add(OrderStatus.valueOf(trimmed));
-            }
-            if (!allowed.isEmpty()) {
-                stream = stream.filter(o -> allowed.contains(o.getStatus()));
-            } else {
-                return Collections.emptyList();
-            }
+    private Set<OrderStatus> parseStatusFilter(String statusFilter) {
+        if (statusFilter == null || statusFilter.isBlank() || "ALL".equalsIgnoreCase(statusFilter)) {
+            return EnumSet.allOf(OrderStatus.class);
+        }
+        Set<OrderStatus> allowed = EnumSet.noneOf(OrderStatus.class);
+        for (String p : statusFilter.split(",")) {
+            String trimmed = p.trim();
+            if (trimmed.isEmpty()) continue;
+            allowed.add(OrderStatus.valueOf(trimmed));
         }
-        return stream.map(OrderMapper::toDto).toList();
+        return allowed;
+    }
+
+    private static String encodeCursor(LocalDateTime date, Long id) {
+        String raw = date + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
     }
 
-    @Transactional
     public OrderDto updateOrderStatus(Long orderId, OrderStatus newStatus) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Pedido no encontrado: " + orderId));
-        OrderStatus current = order.getStatus();
-        Set<OrderStatus> allowed = switch (current) {
-            case PENDIENTE -> Set.of(OrderStatus.EN_PREPARACION, OrderStatus.CANCELADO);
-            case EN_PREPARACION -> Set.of(OrderStatus.LISTO, OrderStatus.CANCELADO);
-            case LISTO -> Set.of(OrderStatus.PAGADO);
-            default -> Set.of();
-        };
-        if (!allowed.contains(newStatus)) {
-            throw new IllegalStateException("Operación no permitida: " + current + " -> " + newStatus);
-        }
-        order.setStatus(newStatus);
-        Order saved = orderRepository.save(order);
-        if (newStatus == OrderStatus.LISTO) {
+        return transitionExecutor.execute(() -> {
+            Order order = orderRepository.findWithDetailsById(orderId)
+                    .orElseThrow(() -> new IllegalArgumentException("Pedido no encontrado: " + orderId));
+            StatusTransitions.ORDER.check(order.getStatus(), newStatus);
+            order.setStatus(newStatus);
+            Order saved = orderRepository.saveAndFlush(order);
             try {
-                tableService.updateTableStatus(saved.getRestaurantTable().getNumber(), TableStatus.PEDIDO_ENTREGADO);
+                tableService.followOrder(saved.getRestaurantTable().getNumber(), newStatus);
             } catch (IllegalStateException e) {
-                System.err.println("No se pudo actualizar estado de mesa al marcar pedido LISTO: " + e.getMessage());
+                System.err.println("No se pudo actualizar estado de mesa al marcar pedido " + newStatus + ": " + e.getMessage());
             }
-        }
-        try {
-            orderWebSocketController.sendOrderUpdate(OrderMapper.toDto(saved));
-        } catch (Exception ignored) {
-        }
-        return OrderMapper.toDto(saved);
+            try {
+                orderWebSocketController.sendOrderEvent(OrderMapper.toStatusChangedEvent(saved), plateIds(saved.getDetails()));
+            } catch (Exception ignored) {
+            }
+            return OrderMapper.toDto(saved);
+        });
     }
 
     @Transactional(readOnly = true)
     public Optional<OrderDto> getOrderById(Long orderId) {
-        return orderRepository.findById(orderId).map(OrderMapper::toDto);
+        return orderRepository.findWithDetailsById(orderId).map(OrderMapper::toDto);
     }
 
     @Transactional
     public OrderDto updateOrder(Long orderId, OrderCreateRequestDto request) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithDetailsById(orderId)
                 .orElseThrow(() -> new IllegalArgumentException("Pedido no encontrado: " + orderId));
 
         if (order.getStatus() != OrderStatus.PENDIENTE) {
             throw new IllegalStateException("Solo se pueden editar pedidos pendientes");
         }
 
-        order.getDetails().clear();
+        OrderPricingService.PricedOrder priced = orderPricingService.price(request.getItems());
 
-        BigDecimal totalPrice = BigDecimal.ZERO;
-
-        for (var item : request.getItems()) {
-            Plate plate = plateRepository.findById(item.getPlateId())
-                    .orElseThrow(() -> new IllegalArgumentException("Plato no encontrado: " + item.getPlateId()));
+        Set<Long> touchedPlates = plateIds(order.getDetails());
+        Map<LineKey, Deque<OrderDetails>> existing = new HashMap<>();
+        for (OrderDetails detail : order.getDetails()) {
+            existing.computeIfAbsent(LineKey.of(detail.getPlate().getId(), detail.getNotes()), key -> new ArrayDeque<>())
+                    .add(detail);
+        }
 
-            if (!Boolean.TRUE.equals(plate.isActive())) {
-                throw new IllegalStateException("El plato " + plate.getName() + " no está disponible");
+        List<OrderDetails> upserted = new ArrayList<>();
+        for (OrderPricingService.PricedLine line : priced.lines()) {
+            touchedPlates.add(line.plateId());
+            Deque<OrderDetails> candidates = existing.get(LineKey.of(line.plateId(), line.notes()));
+            OrderDetails detail = candidates == null ? null : candidates.poll();
+            if (detail == null) {
+                OrderDetails added = newDetail(line);
+                order.addOrderDetail(added);
+                upserted.add(added);
+            } else if (detail.getQuantity() != line.quantity() || detail.getPriceUnit().compareTo(line.priceUnit()) != 0) {
+                detail.setQuantity(line.quantity());
+                detail.setPriceUnit(line.priceUnit());
+                upserted.add(detail);
             }
+        }
 
-            OrderDetails detail = new OrderDetails();
-            detail.setOrder(order);
-            detail.setPlate(plate);
-            detail.setQuantity(item.getQuantity());
-            detail.setPriceUnit(plate.getPrice());
-            detail.setNotes(item.getNotes());
-
-            order.addOrderDetail(detail);
+        List<Long> removedIds = new ArrayList<>();
+        for (Deque<OrderDetails> leftovers : existing.values()) {
+            for (OrderDetails detail : leftovers) {
+                order.getDetails().remove(detail);
+                removedIds.add(detail.getId());
+            }
+        }
 
-            BigDecimal itemTotal = plate.getPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
-            totalPrice = totalPrice.add(itemTotal);
+        if (upserted.isEmpty() && removedIds.isEmpty()) {
+            return OrderMapper.toDto(order);
         }
 
-        order.setPriceTotal(totalPrice);
+        order.setPriceTotal(priced.total());
+        // editar una línea existente no ensucia el pedido: se toca la versión para que el evento la lleve
+        order.setVersion(order.getVersion() + 1);
 
-        Order savedOrder = orderRepository.save(order);
+        orderRepository.flush();
 
         try {
-            orderWebSocketController.sendOrderUpdate(OrderMapper.toDto(savedOrder));
+            orderWebSocketController.sendOrderEvent(OrderMapper.toItemsChangedEvent(order, upserted, removedIds), touchedPlates);
         } catch (Exception ignored) {
         }
 
-        return OrderMapper.toDto(savedOrder);
+        return OrderMapper.toDto(order);
     }
 
+    private static Set<Long> plateIds(List<OrderDetails> details) {
+        Set<Long> plateIds = new HashSet<>();
+        for (OrderDetails detail : details) {
+            plateIds.add(detail.getPlate().getId());
+        }
+        return plateIds;
+    }
+
+    private void applyPricing(Order order, List<OrderItemDto> items) {
+        OrderPricingService.PricedOrder priced = orderPricingService.price(items);
+        for (OrderPricingService.PricedLine line : priced.lines()) {
+            order.addOrderDetail(newDetail(line));
+        }
+        order.setPriceTotal(priced.total());
+    }
+
+    private OrderDetails newDetail(OrderPricingService.PricedLine line) {
+        OrderDetails detail = new OrderDetails();
+        detail.setPlate(plateRepository.getReferenceById(line.plateId()));
+        detail.setQuantity(line.quantity());
+        detail.setPriceUnit(line.priceUnit());
+        detail.setNotes(line.notes());
+        return detail;
+    }
+
+    private record LineKey(Long plateId, String notes) {
+        static LineKey of(Long plateId, String notes) {
+            return new LineKey(plateId, notes == null || notes.isBlank() ? null : notes);
+        }
+    }
+
+    @Transactional(readOnly = true)
     public Optional<OrderDto> getActiveOrderByTableNumber(Integer tableNumber) {
-        Set<OrderStatus> activeStatuses = Set.of(OrderStatus.PENDIENTE, OrderStatus.EN_PREPARACION, OrderStatus.LISTO);
-        return orderRepository.findByRestaurantTable_NumberAndStatusIn(tableNumber, activeStatuses)
+        return orderRepository.findByRestaurantTable_NumberAndStatusIn(tableNumber, StatusTransitions.ACTIVE_ORDER_STATUSES)
                 .map(OrderMapper::toDto);
     }
 
@@ -205,6 +271,9 @@ public class OrderService {
         if (auth == null || !auth.isAuthenticated()) {
             throw new IllegalStateException("Usuario no autenticado");
         }
+        if (auth.getPrincipal() instanceof StaffPrincipal principal) {
+            return staffRepository.getReferenceById(principal.getDni());
+        }
         String dni = auth.getName();
         return staffRepository.findByDni(dni)
                 .orElseThrow(() -> new IllegalStateException("Staff no encontrado: " + dni));
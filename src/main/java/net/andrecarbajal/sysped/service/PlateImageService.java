@@ -0,0 +1,92 @@
+package net.andrecarbajal.sysped.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.andrecarbajal.sysped.repository.PlateRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PlateImageService {
+    private final PlateRepository plateRepository;
+    private final ImageStore imageStore;
+    private final JdbcTemplate jdbcTemplate;
+
+    public static String imageUrl(Long plateId, String imageHash) {
+        return imageUrl(plateId, imageHash, ImageStore.Variant.FULL);
+    }
+
+    public static String thumbnailUrl(Long plateId, String imageHash) {
+        return imageUrl(plateId, imageHash, ImageStore.Variant.THUMB);
+    }
+
+    private static String imageUrl(Long plateId, String imageHash, ImageStore.Variant variant) {
+        return imageHash == null ? null : "/plates/" + plateId + "/image?size=" + variant.getKey() + "&v=" + imageHash;
+    }
+
+    public String storeImage(byte[] image) {
+        ImageStore.Stored stored = imageStore.store(image);
+        if (!stored.created().isEmpty() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            // si la transacción se revierte ninguna fila apunta a los archivos recién creados
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        discard(stored);
+                    }
+                }
+            });
+        }
+        return stored.hash();
+    }
+
+    private void discard(ImageStore.Stored stored) {
+        try {
+            if (!plateRepository.existsByImageHash(stored.hash())) {
+                imageStore.delete(stored.created());
+            }
+        } catch (RuntimeException e) {
+            log.warn("No se pudo descartar la imagen {}: {}", stored.hash(), e.getMessage());
+        }
+    }
+
+    public Optional<String> findImageHash(Long plateId) {
+        return plateRepository.findImageHashById(plateId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyImages() {
+        List<Long> plateIds;
+        try {
+            plateIds = jdbcTemplate.queryForList("select id from plates where image_base64 is not null", Long.class);
+        } catch (BadSqlGrammarException e) {
+            return;
+        }
+
+        int migrated = 0;
+        for (Long plateId : plateIds) {
+            String imageBase64 = jdbcTemplate.queryForObject("select image_base64 from plates where id = ?", String.class, plateId);
+            try {
+                String hash = imageStore.store(Base64.getMimeDecoder().decode(imageBase64)).hash();
+                jdbcTemplate.update("update plates set image_hash = ?, image_base64 = null where id = ?", hash, plateId);
+                migrated++;
+            } catch (IllegalArgumentException e) {
+                log.warn("No se pudo migrar la imagen del plato {}: {}", plateId, e.getMessage());
+            }
+        }
+        if (migrated > 0) {
+            log.info("Imágenes migradas al almacén: {}", migrated);
+        }
+    }
+}
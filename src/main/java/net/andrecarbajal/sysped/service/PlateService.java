@@ -4,9 +4,12 @@ import lombok.RequiredArgsConstructor;
 import net.andrecarbajal.sysped.controller.PlateStatusWebSocketController;
 import net.andrecarbajal.sysped.dto.PlateDto;
 import net.andrecarbajal.sysped.dto.PlateStatusDto;
+import net.andrecarbajal.sysped.event.PlateChangedEvent;
 import net.andrecarbajal.sysped.model.Plate;
 import net.andrecarbajal.sysped.repository.PlateRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -17,12 +20,16 @@ import java.util.stream.Collectors;
 public class PlateService {
     private final PlateRepository plateRepository;
     private final PlateStatusWebSocketController plateStatusWebSocketController;
+    private final PlateImageService plateImageService;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Transactional
     public void setPlateActive(Long plateId, boolean active) {
         Plate plate = plateRepository.findById(plateId)
                 .orElseThrow(() -> new IllegalArgumentException("Plato no encontrado"));
         plate.setActive(active);
         Plate updatedPlate = plateRepository.save(plate);
+        eventPublisher.publishEvent(new PlateChangedEvent(updatedPlate.getId()));
         PlateStatusDto dto = PlateStatusDto.builder()
                 .id(updatedPlate.getId())
                 .active(updatedPlate.isActive())
@@ -33,26 +40,31 @@ public class PlateService {
                 .name(updatedPlate.getName())
                 .description(updatedPlate.getDescription())
                 .price(updatedPlate.getPrice())
-                .imageBase64(updatedPlate.getImageBase64())
+                .imageUrl(PlateImageService.imageUrl(updatedPlate.getId(), updatedPlate.getImageHash()))
+                .thumbnailUrl(PlateImageService.thumbnailUrl(updatedPlate.getId(), updatedPlate.getImageHash()))
                 .active(updatedPlate.isActive())
                 .build();
         plateStatusWebSocketController.sendPlateUpdate(fullDto);
     }
 
-    public void updatePlate(Long id, BigDecimal price, String imageBase64, boolean active) {
+    @Transactional
+    public void updatePlate(Long id, BigDecimal price, byte[] image, boolean active) {
         Plate plate = plateRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Plato no encontrado"));
         plate.setPrice(price);
-        String normalizedImage = (imageBase64 == null || imageBase64.trim().isEmpty()) ? null : imageBase64;
-        plate.setImageBase64(normalizedImage);
+        if (image != null && image.length > 0) {
+            plate.setImageHash(plateImageService.storeImage(image));
+        }
         plate.setActive(active);
         Plate updatedPlate = plateRepository.save(plate);
+        eventPublisher.publishEvent(new PlateChangedEvent(updatedPlate.getId()));
         PlateDto fullDto = PlateDto.builder()
                 .id(updatedPlate.getId())
                 .name(updatedPlate.getName())
                 .description(updatedPlate.getDescription())
                 .price(updatedPlate.getPrice())
-                .imageBase64(updatedPlate.getImageBase64())
+                .imageUrl(PlateImageService.imageUrl(updatedPlate.getId(), updatedPlate.getImageHash()))
+                .thumbnailUrl(PlateImageService.thumbnailUrl(updatedPlate.getId(), updatedPlate.getImageHash()))
                 .active(updatedPlate.isActive())
                 .build();
         plateStatusWebSocketController.sendPlateUpdate(fullDto);
@@ -66,7 +78,8 @@ public class PlateService {
                         .name(plate.getName())
                         .description(plate.getDescription())
                         .price(plate.getPrice())
-                        .imageBase64(plate.getImageBase64())
+                        .imageUrl(PlateImageService.imageUrl(plate.getId(), plate.getImageHash()))
+                        .thumbnailUrl(PlateImageService.thumbnailUrl(plate.getId(), plate.getImageHash()))
                         .active(plate.isActive())
                         .build())
                 .collect(Collectors.toList());
@@ -9,7 +9,6 @@ import net.andrecarbajal.sysped.mapper.OrderMapper;
 import net.andrecarbajal.sysped.model.Order;
 import net.andrecarbajal.sysped.model.OrderStatus;
 import net.andrecarbajal.sysped.model.Receipt;
-import net.andrecarbajal.sysped.model.TableStatus;
 import net.andrecarbajal.sysped.repository.OrderRepository;
 import net.andrecarbajal.sysped.repository.ReceiptRepository;
 import org.springframework.stereotype.Service;
@@ -31,10 +30,10 @@ public class ReceiptService {
 
     @Transactional
     public ReceiptResponseDto createReceipt(Long orderId, ReceiptCreateRequestDto request) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithDetailsById(orderId)
                 .orElseThrow(() -> new IllegalArgumentException("Pedido no encontrado con ID: " + orderId));
 
-        if (order.getStatus() != OrderStatus.LISTO) {
+        if (!StatusTransitions.ORDER.canTransition(order.getStatus(), OrderStatus.PAGADO)) {
             throw new IllegalStateException("Solo se pueden crear recibos para pedidos en estado LISTO. Estado actual: " + order.getStatus());
         }
 
@@ -73,11 +72,11 @@ public class ReceiptService {
 
         order.setStatus(OrderStatus.PAGADO);
         order.setReceipt(receipt);
-        orderRepository.save(order);
+        orderRepository.saveAndFlush(order);
 
-        orderWebSocketController.sendOrderUpdate(OrderMapper.toDto(order));
+        orderWebSocketController.sendOrderEvent(OrderMapper.toStatusChangedEvent(order));
 
-        tableService.updateTableStatus(order.getRestaurantTable().getNumber(), TableStatus.DISPONIBLE);
+        tableService.followOrder(order.getRestaurantTable().getNumber(), order.getStatus());
 
         return toResponseDto(receipt);
     }
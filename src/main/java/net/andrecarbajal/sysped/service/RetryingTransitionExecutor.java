@@ -0,0 +1,80 @@
+package net.andrecarbajal.sysped.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class RetryingTransitionExecutor {
+    private final TransactionOperations transactionOperations;
+    private final CatalogCache catalogCache;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    public RetryingTransitionExecutor(TransactionOperations transactionOperations,
+                                      CatalogCache catalogCache,
+                                      @Value("${sysped.transitions.max-attempts:5}") int maxAttempts,
+                                      @Value("${sysped.transitions.initial-backoff:10ms}") Duration initialBackoff,
+                                      @Value("${sysped.transitions.max-backoff:200ms}") Duration maxBackoff) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts debe ser al menos 1");
+        }
+        this.transactionOperations = transactionOperations;
+        this.catalogCache = catalogCache;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+    }
+
+    public <T> T execute(Supplier<T> transition) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return transition.get();
+        }
+
+        long backoff = initialBackoffMillis;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionOperations.execute(status -> transition.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (e instanceof ObjectOptimisticLockingFailureException conflict) {
+                    catalogCache.evictStale(conflict);
+                }
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("Conflicto de versión (intento {}/{}), reintentando", attempt, maxAttempts);
+                sleep(backoff);
+                backoff = Math.min(backoff * 2, maxBackoffMillis);
+            }
+        }
+    }
+
+    public void run(Runnable transition) {
+        execute(() -> {
+            transition.run();
+            return null;
+        });
+    }
+
+    private static void sleep(long backoff) {
+        if (backoff <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reintento interrumpido", e);
+        }
+    }
+}
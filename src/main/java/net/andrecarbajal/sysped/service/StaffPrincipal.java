@@ -0,0 +1,23 @@
+package net.andrecarbajal.sysped.service;
+
+import lombok.Getter;
+import net.andrecarbajal.sysped.model.Staff;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.List;
+
+@Getter
+public class StaffPrincipal extends User {
+    private final String dni;
+    private final String name;
+    private final String rol;
+
+    public StaffPrincipal(Staff staff) {
+        super(staff.getDni(), staff.getPassword(),
+                List.of(new SimpleGrantedAuthority("ROLE_" + staff.getRol().getName().toUpperCase())));
+        this.dni = staff.getDni();
+        this.name = staff.getName();
+        this.rol = staff.getRol().getName().toUpperCase();
+    }
+}
@@ -3,11 +3,13 @@ package net.andrecarbajal.sysped.service;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import net.andrecarbajal.sysped.dto.StaffRequestDto;
+import net.andrecarbajal.sysped.event.AuditWriter;
+import net.andrecarbajal.sysped.event.StaffChangedEvent;
 import net.andrecarbajal.sysped.model.Rol;
 import net.andrecarbajal.sysped.model.Staff;
 import net.andrecarbajal.sysped.model.StaffAudit;
-import net.andrecarbajal.sysped.repository.StaffAuditRepository;
 import net.andrecarbajal.sysped.repository.StaffRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -22,7 +24,8 @@ import java.util.Optional;
 public class StaffService {
     private final StaffRepository staffRepository;
     private final PasswordEncoder passwordEncoder;
-    private final StaffAuditRepository staffAuditRepository;
+    private final AuditWriter auditWriter;
+    private final ApplicationEventPublisher eventPublisher;
 
     private String currentUsername() {
         try {
@@ -66,19 +69,7 @@ public class StaffService {
         }
         Staff saved = staffRepository.save(staff);
 
-        // Auditing
-        StaffAudit audit = new StaffAudit();
-        audit.setDni(saved.getDni());
-        audit.setName(saved.getName());
-        audit.setRolName(saved.getRol() != null ? saved.getRol().getName() : null);
-        audit.setWhenEvent(OffsetDateTime.now());
-        audit.setPerformedBy(currentUsername());
-        audit.setAction(isNew ? "INSERT" : "REACTIVATE");
-        try {
-            staffAuditRepository.save(audit);
-        } catch (Exception e) {
-            System.err.println("Failed to save staff audit: " + e.getMessage());
-        }
+        audit(saved, isNew ? "INSERT" : "REACTIVATE");
     }
 
     @Transactional
@@ -87,19 +78,8 @@ public class StaffService {
                 .orElseThrow(() -> new IllegalArgumentException("Staff no encontrado"));
         staff.setActive(false);
         Staff saved = staffRepository.save(staff);
-
-        StaffAudit audit = new StaffAudit();
-        audit.setDni(saved.getDni());
-        audit.setName(saved.getName());
-        audit.setRolName(saved.getRol() != null ? saved.getRol().getName() : null);
-        audit.setWhenEvent(OffsetDateTime.now());
-        audit.setPerformedBy(currentUsername());
-        audit.setAction("DELETE");
-        try {
-            staffAuditRepository.save(audit);
-        } catch (Exception e) {
-            System.err.println("Failed to save staff audit: " + e.getMessage());
-        }
+        eventPublisher.publishEvent(new StaffChangedEvent(saved.getDni()));
+        audit(saved, "DELETE");
     }
 
     public boolean existStaffByDni(String dni) {
@@ -116,19 +96,19 @@ public class StaffService {
             staff.setPassword(passwordEncoder.encode(dto.getPassword()));
         }
         Staff saved = staffRepository.save(staff);
+        eventPublisher.publishEvent(new StaffChangedEvent(saved.getDni()));
+        audit(saved, "UPDATE");
+    }
 
+    private void audit(Staff staff, String action) {
         StaffAudit audit = new StaffAudit();
-        audit.setDni(saved.getDni());
-        audit.setName(saved.getName());
-        audit.setRolName(saved.getRol() != null ? saved.getRol().getName() : null);
+        audit.setDni(staff.getDni());
+        audit.setName(staff.getName());
+        audit.setRolName(staff.getRol() != null ? staff.getRol().getName() : null);
         audit.setWhenEvent(OffsetDateTime.now());
         audit.setPerformedBy(currentUsername());
-        audit.setAction("UPDATE");
-        try {
-            staffAuditRepository.save(audit);
-        } catch (Exception e) {
-            System.err.println("Failed to save staff audit: " + e.getMessage());
-        }
+        audit.setAction(action);
+        auditWriter.submit(audit);
     }
 
     public List<Staff> findAllStaff() {
@@ -0,0 +1,42 @@
+package net.andrecarbajal.sysped.service;
+
+import net.andrecarbajal.sysped.model.OrderStatus;
+import net.andrecarbajal.sysped.model.TableStatus;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+public final class StatusTransitions {
+    public static final TransitionTable<OrderStatus> ORDER = TransitionTable.builder(OrderStatus.class)
+            .allow(OrderStatus.PENDIENTE, OrderStatus.EN_PREPARACION, OrderStatus.CANCELADO)
+            .allow(OrderStatus.EN_PREPARACION, OrderStatus.LISTO, OrderStatus.CANCELADO)
+            .allow(OrderStatus.LISTO, OrderStatus.PAGADO)
+            .build();
+
+    public static final TransitionTable<TableStatus> TABLE = TransitionTable.builder(TableStatus.class)
+            .allow(TableStatus.DISPONIBLE, TableStatus.FUERA_DE_SERVICIO, TableStatus.ESPERANDO_PEDIDO, TableStatus.DISPONIBLE)
+            .allow(TableStatus.ESPERANDO_PEDIDO, TableStatus.FALTA_ATENCION, TableStatus.PEDIDO_ENTREGADO, TableStatus.DISPONIBLE)
+            .allow(TableStatus.FALTA_ATENCION, TableStatus.DISPONIBLE, TableStatus.PEDIDO_ENTREGADO, TableStatus.ESPERANDO_PEDIDO)
+            .allow(TableStatus.PEDIDO_ENTREGADO, TableStatus.DISPONIBLE, TableStatus.ESPERANDO_PEDIDO, TableStatus.FALTA_ATENCION)
+            .allow(TableStatus.FUERA_DE_SERVICIO, TableStatus.DISPONIBLE)
+            .build();
+
+    public static final Set<OrderStatus> ACTIVE_ORDER_STATUSES = Collections.unmodifiableSet(
+            EnumSet.of(OrderStatus.PENDIENTE, OrderStatus.EN_PREPARACION, OrderStatus.LISTO));
+
+    private static final Map<OrderStatus, TableStatus> TABLE_FOLLOWS_ORDER = new EnumMap<>(Map.of(
+            OrderStatus.PENDIENTE, TableStatus.ESPERANDO_PEDIDO,
+            OrderStatus.LISTO, TableStatus.PEDIDO_ENTREGADO,
+            OrderStatus.PAGADO, TableStatus.DISPONIBLE
+    ));
+
+    private StatusTransitions() {
+    }
+
+    public static TableStatus tableStatusFor(OrderStatus orderStatus) {
+        return TABLE_FOLLOWS_ORDER.get(orderStatus);
+    }
+}
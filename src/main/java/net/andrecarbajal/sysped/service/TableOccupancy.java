@@ -0,0 +1,145 @@
+package net.andrecarbajal.sysped.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.andrecarbajal.sysped.dto.TableSummaryDto;
+import net.andrecarbajal.sysped.event.ClusterEvents;
+import net.andrecarbajal.sysped.event.EventPublisher;
+import net.andrecarbajal.sysped.event.TableStatusChangedEvent;
+import net.andrecarbajal.sysped.model.TableStatus;
+import net.andrecarbajal.sysped.repository.TableRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TableOccupancy {
+    private static final String SUMMARY_KEY = "summary";
+
+    private final TableRepository tableRepository;
+    private final EventPublisher eventPublisher;
+
+    private final Map<TableStatus, AtomicLong> counters = newCounters();
+    private final AtomicLong generation = new AtomicLong();
+    private final Set<TableStatusChangedEvent> uncommitted = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    @PostConstruct
+    public void seed() {
+        apply(countFromDatabase());
+    }
+
+    public TableSummaryDto summary() {
+        return TableSummaryDto.builder()
+                .countLibres(counters.get(TableStatus.DISPONIBLE).get())
+                .countEsperandoPedido(counters.get(TableStatus.ESPERANDO_PEDIDO).get())
+                .countFaltaAtencion(counters.get(TableStatus.FALTA_ATENCION).get())
+                .countPedidoEntregado(counters.get(TableStatus.PEDIDO_ENTREGADO).get())
+                .build();
+    }
+
+    // se registra dentro de la transacción: mientras no llegue su delta, reconcile no puede fiarse del conteo
+    @EventListener
+    public void onStatusChanging(TableStatusChangedEvent event) {
+        if (ClusterEvents.isRemote() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        synchronized (uncommitted) {
+            uncommitted.add(event);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    synchronized (uncommitted) {
+                        uncommitted.remove(event);
+                    }
+                }
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onStatusChanged(TableStatusChangedEvent event) {
+        // la fila ya está confirmada en otro nodo: recontar es idempotente, aplicar el delta no
+        if (ClusterEvents.isRemote()) {
+            recount(false);
+            return;
+        }
+        synchronized (uncommitted) {
+            uncommitted.remove(event);
+            if (event.from() == event.to()) {
+                return;
+            }
+            counters.get(event.from()).decrementAndGet();
+            counters.get(event.to()).incrementAndGet();
+            generation.incrementAndGet();
+        }
+        eventPublisher.publish("/topic/table-status", SUMMARY_KEY, summary());
+    }
+
+    @Scheduled(fixedDelayString = "${sysped.tables.reconcile-interval-ms:60000}",
+            initialDelayString = "${sysped.tables.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        recount(true);
+    }
+
+    private void recount(boolean announce) {
+        long seen = generation.get();
+        Map<TableStatus, Long> actual = countFromDatabase();
+        boolean drifted;
+        synchronized (uncommitted) {
+            // una transición confirmada antes del conteo pero cuyo delta aún no llegó se contaría dos veces
+            if (!uncommitted.isEmpty() || generation.get() != seen) {
+                return;
+            }
+            drifted = apply(actual);
+        }
+        if (drifted && announce) {
+            log.warn("Contadores de mesas corregidos contra la base de datos: {}", actual);
+            eventPublisher.publish("/topic/table-status", SUMMARY_KEY, summary());
+        }
+    }
+
+    private Map<TableStatus, Long> countFromDatabase() {
+        Map<TableStatus, Long> actual = new EnumMap<>(TableStatus.class);
+        for (TableStatusCount count : tableRepository.countGroupedByStatus()) {
+            actual.put(count.status(), count.count());
+        }
+        return actual;
+    }
+
+    private boolean apply(Map<TableStatus, Long> actual) {
+        boolean drifted = false;
+        for (Map.Entry<TableStatus, AtomicLong> entry : counters.entrySet()) {
+            long expected = actual.getOrDefault(entry.getKey(), 0L);
+            if (entry.getValue().getAndSet(expected) != expected) {
+                drifted = true;
+            }
+        }
+        return drifted;
+    }
+
+    private static Map<TableStatus, AtomicLong> newCounters() {
+        Map<TableStatus, AtomicLong> counters = new EnumMap<>(TableStatus.class);
+        for (TableStatus status : TableStatus.values()) {
+            counters.put(status, new AtomicLong());
+        }
+        return counters;
+    }
+}
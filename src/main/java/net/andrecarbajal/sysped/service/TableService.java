@@ -1,95 +1,107 @@
 package net.andrecarbajal.sysped.service;
 
 import lombok.RequiredArgsConstructor;
+import net.andrecarbajal.sysped.dto.ActiveOrderSummaryDto;
 import net.andrecarbajal.sysped.dto.TableDto;
+import net.andrecarbajal.sysped.dto.TableOverviewDto;
 import net.andrecarbajal.sysped.dto.TableSummaryDto;
+import net.andrecarbajal.sysped.event.EventPublisher;
+import net.andrecarbajal.sysped.event.TableStatusChangedEvent;
+import net.andrecarbajal.sysped.model.OrderStatus;
 import net.andrecarbajal.sysped.model.RestaurantTable;
 import net.andrecarbajal.sysped.model.TableStatus;
+import net.andrecarbajal.sysped.repository.OrderRepository;
 import net.andrecarbajal.sysped.repository.TableRepository;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TableService {
     private final TableRepository tableRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final OrderRepository orderRepository;
+    private final EventPublisher eventPublisher;
+    private final RetryingTransitionExecutor transitionExecutor;
+    private final TableOccupancy tableOccupancy;
+    private final FloorPlanService floorPlanService;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     public List<TableDto> getOperativeTables() {
-        List<RestaurantTable> restaurantTables = tableRepository.findAll();
-        return restaurantTables.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return floorPlanService.current().tables();
     }
 
-    public TableSummaryDto getTableSummary() {
+    public List<TableOverviewDto> getOverview(Collection<Integer> tableNumbers) {
+        Map<Integer, ActiveOrderSummaryDto> activeOrders = new HashMap<>();
+        for (ActiveOrderSummaryDto order : orderRepository.findOrderSummaries(StatusTransitions.ACTIVE_ORDER_STATUSES)) {
+            activeOrders.put(order.getTableNumber(), order);
+        }
 
-        long libres = tableRepository.countByStatus(TableStatus.DISPONIBLE);
-        long esperando = tableRepository.countByStatus(TableStatus.ESPERANDO_PEDIDO);
-        long falta = tableRepository.countByStatus(TableStatus.FALTA_ATENCION);
-        long entregado = tableRepository.countByStatus(TableStatus.PEDIDO_ENTREGADO);
+        return floorPlanService.current().tables().stream()
+                .filter(table -> tableNumbers == null || tableNumbers.isEmpty() || tableNumbers.contains(table.getNumber()))
+                .map(table -> TableOverviewDto.builder()
+                        .number(table.getNumber())
+                        .status(table.getStatus())
+                        .allowedStatuses(StatusTransitions.TABLE.allowedFrom(table.getStatus()))
+                        .activeOrder(activeOrders.get(table.getNumber()))
+                        .build())
+                .toList();
+    }
 
-        return TableSummaryDto.builder()
-                .countLibres(libres)
-                .countEsperandoPedido(esperando)
-                .countFaltaAtencion(falta)
-                .countPedidoEntregado(entregado)
-                .build();
+    public TableSummaryDto getTableSummary() {
+        return tableOccupancy.summary();
     }
 
     public TableDto updateTableStatus(Integer tableNumber, TableStatus newStatus) {
+        return transitionExecutor.execute(() -> {
+            RestaurantTable restaurantTable = tableRepository.findByNumber(tableNumber)
+                    .orElseThrow(() -> new RuntimeException("Mesa no encontrada: " + tableNumber));
 
-        RestaurantTable restaurantTable = tableRepository.findByNumber(tableNumber)
-                .orElseThrow(() -> new RuntimeException("Mesa no encontrada: " + tableNumber));
-
-        TableStatus currentStatus = restaurantTable.getStatus();
-
-        Set<TableStatus> allowed = allowedFromStatus(currentStatus);
+            TableStatus previousStatus = restaurantTable.getStatus();
+            StatusTransitions.TABLE.check(previousStatus, newStatus);
 
-        if (!allowed.contains(newStatus)) {
-            throw new IllegalStateException("Operación no permitida: " + currentStatus + " -> " + newStatus);
-        }
-
-        restaurantTable.setStatus(newStatus);
-        RestaurantTable updatedRestaurantTable = tableRepository.save(restaurantTable);
+            restaurantTable.setStatus(newStatus);
+            RestaurantTable updatedRestaurantTable = tableRepository.save(restaurantTable);
+            applicationEventPublisher.publishEvent(new TableStatusChangedEvent(tableNumber, previousStatus, newStatus));
 
-        TableDto dto = convertToDTO(updatedRestaurantTable);
+            TableDto dto = convertToDTO(updatedRestaurantTable);
 
-        messagingTemplate.convertAndSend("/topic/table-status", dto);
+            eventPublisher.publish("/topic/table-status", "table-" + dto.getNumber(), dto);
 
-        return dto;
+            return dto;
+        });
     }
 
-    private Set<TableStatus> allowedFromStatus(TableStatus currentStatus) {
-        return switch (currentStatus) {
-            case DISPONIBLE -> Set.of(TableStatus.FUERA_DE_SERVICIO, TableStatus.ESPERANDO_PEDIDO, TableStatus.DISPONIBLE);
-            case ESPERANDO_PEDIDO ->
-                    Set.of(TableStatus.FALTA_ATENCION, TableStatus.PEDIDO_ENTREGADO, TableStatus.DISPONIBLE);
-            case FALTA_ATENCION ->
-                    Set.of(TableStatus.DISPONIBLE, TableStatus.PEDIDO_ENTREGADO, TableStatus.ESPERANDO_PEDIDO);
-            case PEDIDO_ENTREGADO ->
-                    Set.of(TableStatus.DISPONIBLE, TableStatus.ESPERANDO_PEDIDO, TableStatus.FALTA_ATENCION);
-            case FUERA_DE_SERVICIO -> Set.of(TableStatus.DISPONIBLE);
-        };
+    public void followOrder(Integer tableNumber, OrderStatus orderStatus) {
+        TableStatus tableStatus = StatusTransitions.tableStatusFor(orderStatus);
+        if (tableStatus != null) {
+            updateTableStatus(tableNumber, tableStatus);
+        }
     }
 
     public Set<TableStatus> getAllowedStatuses(Integer tableNumber) {
         RestaurantTable restaurantTable = tableRepository.findByNumber(tableNumber)
                 .orElseThrow(() -> new RuntimeException("Mesa no encontrada: " + tableNumber));
-        return allowedFromStatus(restaurantTable.getStatus());
+        return StatusTransitions.TABLE.allowedFrom(restaurantTable.getStatus());
     }
 
     public void changeStatus(Long id, TableStatus newStatus) {
-        RestaurantTable table = tableRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Table not found"));
-        table.setStatus(newStatus);
-        RestaurantTable updatedTable = tableRepository.save(table);
-        TableDto dto = convertToDTO(updatedTable);
-        messagingTemplate.convertAndSend("/topic/table-status", dto);
+        transitionExecutor.run(() -> {
+            RestaurantTable table = tableRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Table not found"));
+            TableStatus previousStatus = table.getStatus();
+            StatusTransitions.TABLE.check(previousStatus, newStatus);
+            table.setStatus(newStatus);
+            RestaurantTable updatedTable = tableRepository.save(table);
+            applicationEventPublisher.publishEvent(new TableStatusChangedEvent(updatedTable.getNumber(), previousStatus, newStatus));
+            TableDto dto = convertToDTO(updatedTable);
+            eventPublisher.publish("/topic/table-status", "table-" + dto.getNumber(), dto);
+        });
     }
 
     private TableDto convertToDTO(RestaurantTable restaurantTable) {
@@ -0,0 +1,6 @@
+package net.andrecarbajal.sysped.service;
+
+import net.andrecarbajal.sysped.model.TableStatus;
+
+public record TableStatusCount(TableStatus status, long count) {
+}
@@ -0,0 +1,69 @@
+package net.andrecarbajal.sysped.service;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+public final class TransitionTable<S extends Enum<S>> {
+    private final long[] allowed;
+    private final Map<S, Set<S>> allowedViews;
+
+    private TransitionTable(Class<S> type, long[] allowed) {
+        this.allowed = allowed;
+        this.allowedViews = new EnumMap<>(type);
+        for (S from : type.getEnumConstants()) {
+            EnumSet<S> targets = EnumSet.noneOf(type);
+            for (S to : type.getEnumConstants()) {
+                if (canTransition(from, to)) {
+                    targets.add(to);
+                }
+            }
+            allowedViews.put(from, Collections.unmodifiableSet(targets));
+        }
+    }
+
+    public static <S extends Enum<S>> Builder<S> builder(Class<S> type) {
+        return new Builder<>(type);
+    }
+
+    public boolean canTransition(S from, S to) {
+        return (allowed[from.ordinal()] & (1L << to.ordinal())) != 0;
+    }
+
+    public void check(S from, S to) {
+        if (!canTransition(from, to)) {
+            throw new IllegalStateException("Operación no permitida: " + from + " -> " + to);
+        }
+    }
+
+    public Set<S> allowedFrom(S from) {
+        return allowedViews.get(from);
+    }
+
+    public static final class Builder<S extends Enum<S>> {
+        private final Class<S> type;
+        private final long[] allowed;
+
+        private Builder(Class<S> type) {
+            if (type.getEnumConstants().length > Long.SIZE) {
+                throw new IllegalArgumentException("Demasiados estados para " + type.getSimpleName());
+            }
+            this.type = type;
+            this.allowed = new long[type.getEnumConstants().length];
+        }
+
+        @SafeVarargs
+        public final Builder<S> allow(S from, S... targets) {
+            for (S to : targets) {
+                allowed[from.ordinal()] |= 1L << to.ordinal();
+            }
+            return this;
+        }
+
+        public TransitionTable<S> build() {
+            return new TransitionTable<>(type, allowed.clone());
+        }
+    }
+}
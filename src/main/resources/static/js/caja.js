@@ -1,6 +1,8 @@
 let cajaInitialized = false;
 let cajaOrders = [];
-let cajaRefreshInterval = null;
+const cajaOrderStore = new Map();
+const CAJA_STATUSES = ['PENDIENTE', 'EN_PREPARACION', 'LISTO'];
+const CAJA_TOPIC = '/topic/orders/caja';
 let currentPaymentOrder = null;
 
 function initCajaTabEvents() {
@@ -58,10 +60,9 @@ function initCajaTabEvents() {
 
     loadCajaOrders();
 
-    if (cajaRefreshInterval) {
-        clearInterval(cajaRefreshInterval);
-    }
-    cajaRefreshInterval = setInterval(loadCajaOrders, 30000);
+    websocketManager.connect(() => {
+        websocketManager.subscribe(CAJA_TOPIC, handleCajaOrderEvent, loadCajaOrders);
+    });
 
     cajaInitialized = true;
 }
@@ -70,14 +71,10 @@ function loadCajaOrders() {
     const container = document.getElementById('cajaOrdersContainer');
     if (!container) return;
 
-    fetch('/dashboard/orders?status=PENDIENTE,EN_PREPARACION,LISTO')
-        .then(res => {
-            if (!res.ok) {
-                throw new Error('Error al cargar pedidos: ' + res.status);
-            }
-            return res.json();
-        })
+    ordersApi.fetchAll('PENDIENTE,EN_PREPARACION,LISTO')
         .then(orders => {
+            cajaOrderStore.clear();
+            orders.forEach(order => cajaOrderStore.set(order.id, order));
             cajaOrders = orders;
             renderCajaOrders();
         })
@@ -87,6 +84,15 @@ function loadCajaOrders() {
         });
 }
 
+function handleCajaOrderEvent(event) {
+    ordersApi.applyEvent(cajaOrderStore, event)
+        .then(() => {
+            cajaOrders = Array.from(cajaOrderStore.values()).filter(order => CAJA_STATUSES.includes(order.status));
+            renderCajaOrders();
+        })
+        .catch(err => console.warn('No se pudo aplicar el evento del pedido ' + event.orderId, err));
+}
+
 function renderCajaOrders() {
     const container = document.getElementById('cajaOrdersContainer');
     if (!container) return;
@@ -438,10 +444,8 @@ function showCajaMessage(message, type = 'info') {
 }
 
 function cleanupCaja() {
-    if (cajaRefreshInterval) {
-        clearInterval(cajaRefreshInterval);
-        cajaRefreshInterval = null;
-    }
+    websocketManager.unsubscribe(CAJA_TOPIC);
+    cajaOrderStore.clear();
     cajaInitialized = false;
 }
 
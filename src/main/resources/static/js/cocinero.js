@@ -1,4 +1,10 @@
 let cocineroInitialized = false;
+const cocineroOrders = new Map();
+const KITCHEN_STATUSES = ['PENDIENTE', 'EN_PREPARACION'];
+const KITCHEN_TOPIC = '/topic/orders/kitchen';
+const STATION_STORAGE_KEY = 'sysped.kitchenStation';
+let kitchenStation = localStorage.getItem(STATION_STORAGE_KEY) || '';
+let kitchenTopic = null;
 
 function initCocineroTabEvents() {
     const closeModal = document.getElementById('closeChangeOrderModal');
@@ -6,24 +12,70 @@ function initCocineroTabEvents() {
     if (closeModal) closeModal.addEventListener('click', closeChangeOrderModal);
     if (cancelBtn) cancelBtn.addEventListener('click', closeChangeOrderModal);
 
+    const stationSelect = document.getElementById('kitchenStation');
+    if (stationSelect) {
+        if (!stationSelect.querySelector(`option[value="${kitchenStation}"]`)) {
+            kitchenStation = '';
+        }
+        stationSelect.value = kitchenStation;
+        stationSelect.addEventListener('change', () => changeStation(stationSelect.value));
+    }
+
     refreshOrders(false);
 
-    websocketManager.connect(() => {
-        websocketManager.subscribe('/topic/order-updates', updateOrderView);
-    });
+    websocketManager.connect(subscribeKitchen);
     cocineroInitialized = true;
 }
 
+function subscribeKitchen() {
+    if (kitchenTopic) {
+        websocketManager.unsubscribe(kitchenTopic);
+    }
+    kitchenTopic = kitchenStation ? `${KITCHEN_TOPIC}/station-${kitchenStation}` : KITCHEN_TOPIC;
+    websocketManager.subscribe(kitchenTopic, handleOrderEvent, () => refreshOrders(true));
+}
+
+function changeStation(station) {
+    kitchenStation = station;
+    localStorage.setItem(STATION_STORAGE_KEY, station);
+    subscribeKitchen();
+    refreshOrders(true);
+}
+
+function belongsToStation(order) {
+    if (!kitchenStation) {
+        return true;
+    }
+    return (order.items || []).some(i => i.plate && String(i.plate.categoryId) === kitchenStation);
+}
+
+function handleOrderEvent(event) {
+    const status = event.changes && event.changes.status;
+    if (!cocineroOrders.has(event.orderId) && event.type !== 'CREATED' && status && !KITCHEN_STATUSES.includes(status)) {
+        removeOrderCard(event.orderId);
+        return;
+    }
+    ordersApi.applyEvent(cocineroOrders, event)
+        .then(updateOrderView)
+        .catch(err => console.warn('No se pudo aplicar el evento del pedido ' + event.orderId, err));
+}
+
+function removeOrderCard(orderId) {
+    cocineroOrders.delete(orderId);
+    const card = document.getElementById(`order-card-${orderId}`);
+    if (card) {
+        card.remove();
+    }
+}
+
 function updateOrderView(orderDto) {
     const container = document.getElementById('ordersContainer');
     if (!container) return;
 
     const existingCard = document.getElementById(`order-card-${orderDto.id}`);
 
-    if (orderDto.status !== 'PENDIENTE' && orderDto.status !== 'EN_PREPARACION') {
-        if (existingCard) {
-            existingCard.remove();
-        }
+    if (!KITCHEN_STATUSES.includes(orderDto.status) || !belongsToStation(orderDto)) {
+        removeOrderCard(orderDto.id);
         return;
     }
 
@@ -162,6 +214,8 @@ function createOrderCard(o) {
 function renderOrders(list) {
     const container = document.getElementById('ordersContainer');
     if (!container) return;
+    cocineroOrders.clear();
+    (list || []).forEach(o => cocineroOrders.set(o.id, o));
     if (!list || list.length === 0) {
         container.innerHTML = '<p>No hay pedidos.</p>';
         return;
@@ -178,17 +232,17 @@ function renderOrders(list) {
 }
 
 function refreshOrders(force) {
-    const url = `/dashboard/orders?status=${encodeURIComponent('PENDIENTE,EN_PREPARACION')}`;
-    fetch(url).then(resp => {
-        if (!resp.ok) throw new Error('No se pudo obtener pedidos');
-        return resp.json();
-    }).then(list => renderOrders(list)).catch(err => {
+    ordersApi.fetchAll('PENDIENTE,EN_PREPARACION').then(list => renderOrders(list.filter(belongsToStation))).catch(err => {
         document.getElementById('ordersContainer').innerHTML = '<p>Error al cargar pedidos.</p>';
     });
 }
 
 function cleanupCocinero() {
-    websocketManager.unsubscribe('/topic/order-updates');
+    if (kitchenTopic) {
+        websocketManager.unsubscribe(kitchenTopic);
+        kitchenTopic = null;
+    }
+    cocineroOrders.clear();
     cocineroInitialized = false;
 }
 
@@ -1,4 +1,6 @@
 let mesasInitialized = false;
+let floorPlanVersion = 0;
+const tableOverview = new Map();
 
 function updateTableInView(tableDTO) {
     const mesaElement = document.querySelector(`.mesa[data-numero="${tableDTO.number}"]`);
@@ -56,10 +58,12 @@ function actualizarResumen() {
     const countAm = mesasEls.filter(el => el.classList.contains('mesa-amarillo')).length;
     const countR = mesasEls.filter(el => el.classList.contains('mesa-rojo')).length;
 
-    document.querySelectorAll('.count-verde').forEach(el => el.textContent = countV);
-    document.querySelectorAll('.count-azul').forEach(el => el.textContent = countA);
-    document.querySelectorAll('.count-amarillo').forEach(el => el.textContent = countAm);
-    document.querySelectorAll('.count-rojo').forEach(el => el.textContent = countR);
+    renderResumen({
+        countLibres: countV,
+        countEsperandoPedido: countA,
+        countFaltaAtencion: countAm,
+        countPedidoEntregado: countR
+    });
 }
 
 function initMesasFromDOM() {
@@ -264,8 +268,7 @@ function initMesaModalEvents() {
             const status = btn.dataset.status;
             const tableNumber = document.getElementById('modalTableNumberInput').value;
             if (tableNumber && status) {
-                fetch(`/dashboard/tables/${tableNumber}/allowed-statuses`)
-                    .then(resp => resp.ok ? resp.json() : Promise.reject('No se pudo validar transición'))
+                fetchAllowedStatuses(tableNumber)
                     .then(allowedList => {
                         const allowedSet = new Set(allowedList);
                         const mesaEl = document.querySelector(`.mesa[data-numero="${tableNumber}"]`);
@@ -396,15 +399,27 @@ function initOrderModalEvents() {
 
 function cleanupMesas() {
     if (mesasInitialized) {
-        websocketManager.unsubscribe('/topic/tableStatus');
+        websocketManager.unsubscribe('/topic/table-status');
         websocketManager.unsubscribe('/topic/plate-updates');
         mesasInitialized = false;
     }
 }
 
+function renderResumen(summary) {
+    document.querySelectorAll('.count-verde').forEach(el => el.textContent = summary.countLibres);
+    document.querySelectorAll('.count-azul').forEach(el => el.textContent = summary.countEsperandoPedido);
+    document.querySelectorAll('.count-amarillo').forEach(el => el.textContent = summary.countFaltaAtencion);
+    document.querySelectorAll('.count-rojo').forEach(el => el.textContent = summary.countPedidoEntregado);
+}
+
 function handleTableStatusUpdate(update) {
+    if (update.number === undefined) {
+        renderResumen(update);
+        return;
+    }
     const tableId = String(update.number);
     const newStatus = update.status;
+    tableOverview.delete(tableId);
     const mesas = document.querySelectorAll(`.mesa[data-numero="${tableId}"]`);
     if (mesas.length === 0) {
         console.warn(`[WebSocket] No se encontró ninguna mesa con data-numero="${tableId}"`);
@@ -415,6 +430,39 @@ function handleTableStatusUpdate(update) {
     });
 }
 
+function loadTableOverview() {
+    fetch('/dashboard/tables/overview')
+        .then(resp => resp.ok ? resp.json() : Promise.reject(new Error(resp.status)))
+        .then(overview => {
+            tableOverview.clear();
+            overview.forEach(table => tableOverview.set(String(table.number), table));
+        })
+        .catch(err => console.warn('[Mesas] No se pudo cargar el resumen de mesas:', err));
+}
+
+function fetchAllowedStatuses(tableNumber) {
+    const cached = tableOverview.get(String(tableNumber));
+    if (cached) {
+        return Promise.resolve(cached.allowedStatuses);
+    }
+    return fetch(`/dashboard/tables/${tableNumber}/allowed-statuses`)
+        .then(resp => resp.ok ? resp.json() : Promise.reject('No se pudo validar transición'));
+}
+
+function syncFloorPlan() {
+    const grid = document.getElementById('mesasGrid');
+    if (!grid) return;
+    const since = Math.max(floorPlanVersion, Number(grid.dataset.floorVersion) || 0);
+    if (!since) return;
+    fetch(`/dashboard/tables/floor-plan/changes?since=${since}`)
+        .then(resp => resp.ok ? resp.json() : Promise.reject(new Error(resp.status)))
+        .then(delta => {
+            delta.tables.forEach(updateTableInView);
+            floorPlanVersion = delta.version;
+        })
+        .catch(err => console.warn('[Mesas] No se pudo sincronizar el plano de mesas:', err));
+}
+
 function initializeMesas() {
     if (mesasInitialized) return;
 
@@ -426,8 +474,13 @@ function initializeMesas() {
     initViewOrderModalEvents();
 
     websocketManager.connect(() => {
-        websocketManager.subscribe('/topic/table-status', handleTableStatusUpdate);
+        websocketManager.subscribe('/topic/table-status', handleTableStatusUpdate, () => {
+            syncFloorPlan();
+            loadTableOverview();
+        });
         websocketManager.subscribe('/topic/plate-updates', updatePlateInOrderModal);
+        syncFloorPlan();
+        loadTableOverview();
     });
 
     mesasInitialized = true;
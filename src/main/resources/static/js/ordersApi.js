@@ -0,0 +1,82 @@
+const ordersApi = (() => {
+    const PAGE_SIZE = 100;
+
+    function fetchAll(status) {
+        const collected = [];
+
+        function fetchPage(cursor) {
+            const params = new URLSearchParams({status: status, limit: String(PAGE_SIZE)});
+            if (cursor) {
+                params.set('cursor', cursor);
+            }
+            return fetch('/dashboard/orders?' + params.toString())
+                .then(res => {
+                    if (!res.ok) {
+                        throw new Error('Error al cargar pedidos: ' + res.status);
+                    }
+                    return res.json();
+                })
+                .then(page => {
+                    collected.push(...(page.items || []));
+                    return page.nextCursor ? fetchPage(page.nextCursor) : collected;
+                });
+        }
+
+        return fetchPage(null);
+    }
+
+    function fetchOne(orderId) {
+        return fetch('/dashboard/orders/' + orderId)
+            .then(res => {
+                if (!res.ok) {
+                    throw new Error('No se pudo obtener el pedido ' + orderId);
+                }
+                return res.json();
+            });
+    }
+
+    // Aplica un evento delta sobre el mapa local; ante un salto de versión se pide el pedido completo
+    function applyEvent(store, event) {
+        const local = store.get(event.orderId);
+        if (local && event.version <= local.version) {
+            return Promise.resolve(local);
+        }
+        if (event.type === 'ITEMS_CHANGED' && local && event.version === local.version + 1) {
+            const updated = Object.assign({}, local, {
+                totalPrice: event.changes.totalPrice,
+                items: mergeItems(local.items || [], event.changes.upsertedItems || [], event.changes.removedItemIds || []),
+                version: event.version
+            });
+            store.set(event.orderId, updated);
+            return Promise.resolve(updated);
+        }
+        if (event.type === 'CREATED' || (local && event.type !== 'ITEMS_CHANGED' && event.version === local.version + 1)) {
+            const updated = Object.assign({}, local || {id: event.orderId}, event.changes, {version: event.version});
+            store.set(event.orderId, updated);
+            return Promise.resolve(updated);
+        }
+        return fetchOne(event.orderId).then(order => {
+            store.set(order.id, order);
+            return order;
+        });
+    }
+
+    function mergeItems(items, upserted, removedIds) {
+        const removed = new Set(removedIds);
+        const byId = new Map(upserted.map(item => [item.id, item]));
+        const merged = items
+            .filter(item => !removed.has(item.id))
+            .map(item => {
+                const replacement = byId.get(item.id);
+                byId.delete(item.id);
+                return replacement || item;
+            });
+        return merged.concat(Array.from(byId.values()));
+    }
+
+    return {
+        fetchAll,
+        fetchOne,
+        applyEvent
+    };
+})();
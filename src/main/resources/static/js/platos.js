@@ -145,11 +145,8 @@ function updatePlateInView(plate) {
         card.setAttribute('data-description', plate.description);
         card.setAttribute('data-price', plate.price);
         card.setAttribute('data-active', plate.active);
-        card.setAttribute('data-image-base64', plate.imageBase64 || '');
-
         let img = card.querySelector('.plato-img');
-        const hasImage = plate.imageBase64 && String(plate.imageBase64).trim() !== '';
-        if (hasImage) {
+        if (plate.thumbnailUrl) {
             if (!img) {
                 img = document.createElement('img');
                 img.className = 'plato-img';
@@ -161,7 +158,9 @@ function updatePlateInView(plate) {
                     card.appendChild(img);
                 }
             }
-            img.src = 'data:image/jpeg;base64,' + plate.imageBase64;
+            if (img.getAttribute('src') !== plate.thumbnailUrl) {
+                img.src = plate.thumbnailUrl;
+            }
             img.style.display = 'block';
         } else {
             if (img) {
@@ -274,43 +273,19 @@ function savePlateUpdate() {
     const plateId = form.getAttribute('data-plate-id');
     const formData = new FormData(form);
 
+    const body = new FormData();
+    body.set('id', plateId);
+    body.set('price', parseFloat(formData.get('price')));
+    body.set('active', formData.get('active') === 'on');
+
+    // Sin archivo nuevo se conserva la imagen actual
     const imageFile = formData.get('image');
     if (imageFile && imageFile.size > 0) {
-        const reader = new FileReader();
-        reader.onload = function (e) {
-            const base64Image = e.target.result.split(',')[1]; // Remove data:image/... prefix
-            formData.set('imageBase64', base64Image);
-            formData.delete('image');
-            submitPlateUpdate(plateId, formData);
-        };
-        reader.readAsDataURL(imageFile);
-    } else {
-        const existingImage = document.querySelector(`.plato-card[data-plate-id="${plateId}"]`).getAttribute('data-image-base64') || '';
-        formData.set('imageBase64', existingImage);
-        formData.delete('image');
-        submitPlateUpdate(plateId, formData);
-    }
-}
-
-function submitPlateUpdate(plateId, formData) {
-    const data = {
-        id: plateId,
-        price: parseFloat(formData.get('price')),
-        imageBase64: formData.get('imageBase64'),
-        active: formData.get('active') === 'on'
-    };
-
-    // Construir body form-urlencoded, omitiendo imageBase64 si es nulo/''
-    let body = `id=${encodeURIComponent(data.id)}&price=${encodeURIComponent(data.price)}&active=${encodeURIComponent(data.active)}`;
-    if (data.imageBase64 && String(data.imageBase64).trim() !== '') {
-        body += `&imageBase64=${encodeURIComponent(data.imageBase64)}`;
+        body.set('image', imageFile);
     }
 
     fetch('/dashboard/plate/update', {
         method: 'POST',
-        headers: {
-            'Content-Type': 'application/x-www-form-urlencoded'
-        },
         body: body
     })
         .then(response => response.text())
@@ -1,37 +1,162 @@
 const websocketManager = (() => {
+    const RECONNECT_MIN_DELAY = 1000;
+    const RECONNECT_MAX_DELAY = 30000;
+
     let stompClient = null;
+    let connecting = false;
+    let pendingCallbacks = [];
+    let reconnectDelay = RECONNECT_MIN_DELAY;
     let subscriptions = {};
+    const topics = {};
 
     function connect(callback) {
+        if (stompClient && stompClient.connected) {
+            if (callback) {
+                callback();
+            }
+            return;
+        }
+        if (callback) {
+            pendingCallbacks.push(callback);
+        }
+        if (connecting) {
+            return;
+        }
+        connecting = true;
         const socket = new SockJS('/ws');
         stompClient = Stomp.over(socket);
         stompClient.connect({}, frame => {
             console.log('Connected: ' + frame);
-            if (callback) {
-                callback();
-            }
+            connecting = false;
+            reconnectDelay = RECONNECT_MIN_DELAY;
+            Object.keys(topics).forEach(topic => openSubscription(topic));
+            const callbacks = pendingCallbacks;
+            pendingCallbacks = [];
+            callbacks.forEach(cb => cb());
+        }, () => {
+            connecting = false;
+            scheduleReconnect();
         });
     }
 
+    function scheduleReconnect() {
+        subscriptions = {};
+        if (Object.keys(topics).length === 0) {
+            return;
+        }
+        const delay = reconnectDelay;
+        reconnectDelay = Math.min(reconnectDelay * 2, RECONNECT_MAX_DELAY);
+        console.warn(`[WebSocket] Conexión perdida, reintentando en ${delay} ms`);
+        setTimeout(() => connect(), delay);
+    }
+
     function disconnect() {
+        Object.keys(topics).forEach(topic => delete topics[topic]);
         if (stompClient !== null) {
             stompClient.disconnect();
         }
         console.log("Disconnected");
     }
 
-    function subscribe(topic, callback) {
+    // onResync se invoca cuando los eventos perdidos ya no están en el buffer del servidor
+    function subscribe(topic, callback, onResync) {
+        const state = topics[topic] || {lastSeq: null, epoch: null, pending: null};
+        state.callback = callback;
+        state.onResync = onResync;
+        topics[topic] = state;
         if (stompClient && stompClient.connected) {
-            const subscription = stompClient.subscribe(topic, message => {
-                callback(JSON.parse(message.body));
-            });
-            subscriptions[topic] = subscription;
+            openSubscription(topic);
         } else {
             console.error("STOMP client is not connected.");
         }
     }
 
+    function openSubscription(topic) {
+        const state = topics[topic];
+        if (subscriptions[topic]) {
+            subscriptions[topic].unsubscribe();
+        }
+        subscriptions[topic] = stompClient.subscribe(topic, message => receive(topic, message));
+        if (state.lastSeq !== null) {
+            resume(topic);
+        }
+    }
+
+    function receive(topic, message) {
+        const state = topics[topic];
+        if (!state) {
+            return;
+        }
+        if (state.pending) {
+            state.pending.push(message);
+            return;
+        }
+        const seq = Number(message.headers['x-seq']);
+        const epoch = message.headers['x-epoch'];
+        if (seq && state.lastSeq !== null && epoch === state.epoch && seq > state.lastSeq + 1) {
+            state.pending = [message];
+            fetchReplay(topic);
+            return;
+        }
+        deliver(state, seq, epoch, JSON.parse(message.body), Boolean(message.headers['x-batch']));
+    }
+
+    function deliver(state, seq, epoch, payload, batch) {
+        if (seq) {
+            if (epoch === state.epoch && state.lastSeq !== null && seq <= state.lastSeq) {
+                return;
+            }
+            state.lastSeq = seq;
+            state.epoch = epoch;
+        }
+        if (batch) {
+            payload.forEach(state.callback);
+        } else {
+            state.callback(payload);
+        }
+    }
+
+    function resume(topic) {
+        topics[topic].pending = [];
+        fetchReplay(topic);
+    }
+
+    function fetchReplay(topic) {
+        const state = topics[topic];
+        const params = new URLSearchParams({
+            destination: topic,
+            epoch: state.epoch || '0',
+            after: String(state.lastSeq || 0)
+        });
+        fetch('/dashboard/events/replay?' + params.toString())
+            .then(resp => resp.ok ? resp.json() : Promise.reject(new Error(resp.status)))
+            .then(replay => {
+                const epoch = String(replay.epoch);
+                if (!replay.complete) {
+                    state.lastSeq = replay.seq;
+                    state.epoch = epoch;
+                    if (state.onResync) {
+                        state.onResync();
+                    }
+                    return;
+                }
+                replay.frames.forEach(frame => deliver(state, frame.seq, epoch, frame.payload, frame.batch));
+            })
+            .catch(err => {
+                console.warn(`[WebSocket] No se pudo recuperar ${topic}:`, err);
+                if (state.onResync) {
+                    state.onResync();
+                }
+            })
+            .finally(() => {
+                const pending = state.pending || [];
+                state.pending = null;
+                pending.forEach(message => receive(topic, message));
+            });
+    }
+
     function unsubscribe(topic) {
+        delete topics[topic];
         if (subscriptions[topic]) {
             subscriptions[topic].unsubscribe();
             delete subscriptions[topic];
@@ -44,4 +169,4 @@ const websocketManager = (() => {
         subscribe,
         unsubscribe
     };
-})();
\ No newline at end of file
+})();
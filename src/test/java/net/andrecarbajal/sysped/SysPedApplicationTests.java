@@ -2,8 +2,10 @@ package net.andrecarbajal.sysped;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest
+@SpringBootTest(properties = "sysped.query-budget.fail-on-exceed=true")
+@ActiveProfiles("test")
 class SysPedApplicationTests {
 
     @Test
@@ -0,0 +1,108 @@
+package net.andrecarbajal.sysped.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.andrecarbajal.sysped.event.StaffChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingAuthenticationProviderTest {
+    private static final String DNI = "12345678";
+
+    private UserDetailsService userDetailsService;
+    private CredentialCache credentialCache;
+    private CachingAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        userDetailsService = mock(UserDetailsService.class);
+        when(userDetailsService.loadUserByUsername(DNI)).thenAnswer(invocation ->
+                User.withUsername(DNI).password(encoder.encode("secreto")).roles("CAJERO").build());
+        credentialCache = new CredentialCache(new SimpleMeterRegistry(), Duration.ofMinutes(5), 100);
+        provider = new CachingAuthenticationProvider(userDetailsService, encoder, credentialCache);
+    }
+
+    private Authentication login(String password) {
+        return provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(DNI, password));
+    }
+
+    @Test
+    void repeatedLoginsSkipTheLookupAndBcrypt() {
+        for (int i = 0; i < 10; i++) {
+            Authentication result = login("secreto");
+            assertTrue(result.isAuthenticated());
+            assertEquals(DNI, result.getName());
+        }
+
+        verify(userDetailsService, times(1)).loadUserByUsername(DNI);
+    }
+
+    @Test
+    void wrongPasswordsAreNeverServedFromTheCache() {
+        login("secreto");
+
+        assertThrows(BadCredentialsException.class, () -> login("otra"));
+        assertThrows(BadCredentialsException.class, () -> login("otra"));
+        verify(userDetailsService, times(3)).loadUserByUsername(DNI);
+    }
+
+    @Test
+    void staffChangesEvictTheirCredentials() {
+        login("secreto");
+
+        credentialCache.onStaffChanged(new StaffChangedEvent(DNI));
+        login("secreto");
+
+        verify(userDetailsService, times(2)).loadUserByUsername(DNI);
+    }
+
+    @Test
+    void cacheHitsDoNotShareRequestDetails() {
+        ProviderManager manager = new ProviderManager(provider);
+        UsernamePasswordAuthenticationToken first = UsernamePasswordAuthenticationToken.unauthenticated(DNI, "secreto");
+        first.setDetails("10.0.0.1");
+        UsernamePasswordAuthenticationToken second = UsernamePasswordAuthenticationToken.unauthenticated(DNI, "secreto");
+        second.setDetails("10.0.0.2");
+
+        Authentication one = manager.authenticate(first);
+        Authentication two = manager.authenticate(second);
+        Authentication three = manager.authenticate(second);
+
+        assertEquals("10.0.0.1", one.getDetails());
+        assertEquals("10.0.0.2", two.getDetails());
+        assertNotSame(two, three);
+    }
+
+    @Test
+    void lookupsStartedBeforeAnEvictionAreNotCached() {
+        UserDetailsService loader = userDetailsService;
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        when(loader.loadUserByUsername(DNI)).thenAnswer(invocation -> {
+            credentialCache.evict(DNI);
+            return User.withUsername(DNI).password(encoder.encode("secreto")).roles("CAJERO").build();
+        });
+
+        login("secreto");
+        login("secreto");
+
+        verify(userDetailsService, times(2)).loadUserByUsername(DNI);
+    }
+}
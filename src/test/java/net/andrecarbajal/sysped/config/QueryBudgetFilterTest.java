@@ -0,0 +1,69 @@
+package net.andrecarbajal.sysped.config;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QueryBudgetFilterTest {
+    private final QueryCountInspector inspector = new QueryCountInspector();
+
+    private FilterChain handlerRunning(int statements) {
+        return (request, response) -> {
+            QueryCountInspector.reset();
+            request.setAttribute(QueryBudgetInterceptor.BUDGET_ATTRIBUTE, 1);
+            for (int i = 0; i < statements; i++) {
+                inspector.inspect("select 1");
+            }
+            response.getOutputStream().write("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+            response.flushBuffer();
+        };
+    }
+
+    @Test
+    void overBudgetResponseIsReplacedEvenAfterTheHandlerFlushed() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new QueryBudgetFilter(true).doFilter(new MockHttpServletRequest("GET", "/dashboard/orders/1"), response, handlerRunning(3));
+
+        assertEquals(500, response.getStatus());
+        assertEquals("", response.getContentAsString());
+    }
+
+    @Test
+    void withinBudgetResponseIsPassedThrough() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/dashboard/orders/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new QueryBudgetFilter(true).doFilter(request, response, handlerRunning(1));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("{\"id\":1}", response.getContentAsString());
+        assertEquals(1, request.getAttribute(QueryBudgetFilter.STATEMENTS_ATTRIBUTE));
+    }
+
+    @Test
+    void overBudgetOnlyWarnsWhenNotFailing() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/dashboard/orders/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new QueryBudgetFilter(false).doFilter(request, response, handlerRunning(3));
+
+        assertEquals(200, response.getStatus());
+        assertEquals(3, request.getAttribute(QueryBudgetFilter.STATEMENTS_ATTRIBUTE));
+    }
+
+    @Test
+    void declaredLengthSurvivesWhenTheBodyIsNotWrittenThroughTheFilter() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new QueryBudgetFilter(true).doFilter(new MockHttpServletRequest("HEAD", "/plates/1/image"), response,
+                (request, servletResponse) -> servletResponse.setContentLengthLong(759_949));
+
+        assertEquals(759_949, response.getContentLengthLong());
+    }
+}
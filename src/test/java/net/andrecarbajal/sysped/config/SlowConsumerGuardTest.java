@@ -0,0 +1,95 @@
+package net.andrecarbajal.sysped.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SlowConsumerGuardTest {
+    private static final int MAX_PENDING = 3;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SlowConsumerGuard guard;
+    private WebSocketSession session;
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private final MessageHandler handler = mock(MessageHandler.class);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        guard = new SlowConsumerGuard(meterRegistry, MAX_PENDING);
+        session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("s1");
+        guard.decorate(mock(WebSocketHandler.class)).afterConnectionEstablished(session);
+    }
+
+    private Message<byte[]> messageFor(String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    @Test
+    void deliveredMessagesReleaseTheirSlot() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            Message<byte[]> message = messageFor("s1");
+            assertNotNull(guard.preSend(message, channel));
+            guard.afterSendCompletion(message, channel, true, null);
+            guard.afterMessageHandled(message, channel, handler, null);
+        }
+
+        verify(session, never()).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertEquals(0.0, meterRegistry.get("sysped.websocket.session.queue.max").gauge().value());
+    }
+
+    @Test
+    void sessionThatFallsBehindIsEvicted() throws Exception {
+        for (int i = 0; i < MAX_PENDING; i++) {
+            assertNotNull(guard.preSend(messageFor("s1"), channel));
+        }
+        assertEquals(MAX_PENDING, meterRegistry.get("sysped.websocket.session.queue.max").gauge().value());
+
+        assertNull(guard.preSend(messageFor("s1"), channel));
+
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertEquals(1.0, meterRegistry.get("sysped.websocket.sessions.evicted").counter().count());
+        assertEquals(1.0, meterRegistry.get("sysped.websocket.messages.dropped").counter().count());
+    }
+
+    @Test
+    void messagesWithoutATrackedSessionPassThrough() {
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(guard.preSend(messageFor("other"), channel));
+        }
+        assertNotNull(guard.preSend(MessageBuilder.withPayload(new byte[0]).build(), channel));
+    }
+
+    @Test
+    void rejectedSendsReleaseTheirSlot() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            Message<byte[]> message = messageFor("s1");
+            assertNotNull(guard.preSend(message, channel));
+            guard.afterSendCompletion(message, channel, false, new TaskRejectedException("cola llena"));
+        }
+
+        verify(session, never()).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertEquals(0.0, meterRegistry.get("sysped.websocket.session.queue.max").gauge().value());
+    }
+}
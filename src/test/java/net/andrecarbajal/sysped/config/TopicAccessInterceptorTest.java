@@ -0,0 +1,79 @@
+package net.andrecarbajal.sysped.config;
+
+import net.andrecarbajal.sysped.event.OrderTopics;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class TopicAccessInterceptorTest {
+    private final TopicAccessInterceptor interceptor = new TopicAccessInterceptor();
+    private final MessageChannel channel = mock(MessageChannel.class);
+
+    private static Principal staff(String role) {
+        return new UsernamePasswordAuthenticationToken("12345678", null, List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+    }
+
+    private static Message<byte[]> subscribe(String destination, Principal user) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setDestination(destination);
+        accessor.setUser(user);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    @Test
+    void cooksMaySubscribeToTheirStationButNotToTheCashier() {
+        assertNotNull(interceptor.preSend(subscribe(OrderTopics.station(3L), staff("COCINERO")), channel));
+        assertNotNull(interceptor.preSend(subscribe(OrderTopics.KITCHEN, staff("COCINERO")), channel));
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(subscribe(OrderTopics.CASHIER, staff("COCINERO")), channel));
+    }
+
+    @Test
+    void anonymousSessionsOnlyReachSharedTopics() {
+        assertNotNull(interceptor.preSend(subscribe("/topic/table-status", null), channel));
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(subscribe(OrderTopics.KITCHEN, null), channel));
+    }
+
+    @Test
+    void wildcardSubscriptionsAreRejectedForEveryRole() {
+        for (String destination : List.of("/topic/**", "/topic/orders/*", "/topic/orders/**", "/topic/orders/caj?",
+                "/topic/orders/{role}", "/topic/*-status", "/topic/>", "/topic/orders/>", "/topic/orders/#",
+                "/topic/orders.#", "/topic/#")) {
+            assertThrows(MessageDeliveryException.class,
+                    () -> interceptor.preSend(subscribe(destination, staff("MOZO")), channel), destination);
+            assertThrows(MessageDeliveryException.class,
+                    () -> interceptor.preSend(subscribe(destination, staff("JEFE")), channel), destination);
+        }
+    }
+
+    @Test
+    void roleCheckAppliesOnPathBoundaries() {
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(subscribe(OrderTopics.CASHIER + "/extra", staff("MOZO")), channel));
+        assertNotNull(interceptor.preSend(subscribe(OrderTopics.CASHIER, staff("CAJERO")), channel));
+    }
+
+    @Test
+    void onlyKnownOrderTopicsAreReadable() {
+        assertNotNull(interceptor.preSend(subscribe(OrderTopics.station(12L), staff("COCINERO")), channel));
+        for (String destination : List.of("/topic/orders", "/topic/orders/caja/extra", "/topic/orders/kitchen/station-x",
+                "/topic/orders/kitchen/station-1/extra", "/topic/ordersx", "/topic/kitchen/station-1")) {
+            assertThrows(MessageDeliveryException.class,
+                    () -> interceptor.preSend(subscribe(destination, staff("JEFE")), channel), destination);
+        }
+    }
+}
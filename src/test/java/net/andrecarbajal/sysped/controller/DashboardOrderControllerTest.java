@@ -0,0 +1,86 @@
+package net.andrecarbajal.sysped.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import net.andrecarbajal.sysped.config.QueryBudgetFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(username = "00000000", roles = "JEFE")
+class DashboardOrderControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    private long createOrder(int tableNumber) throws Exception {
+        return createOrder(tableNumber, "{\"plateId\":1,\"quantity\":2},{\"plateId\":2,\"quantity\":1},{\"plateId\":3,\"quantity\":1}");
+    }
+
+    private long createOrder(int tableNumber, String items) throws Exception {
+        String body = mockMvc.perform(post("/dashboard/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tableNumber\":" + tableNumber + ",\"items\":[" + items + "]}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return ((Number) JsonPath.read(body, "$.id")).longValue();
+    }
+
+    @Test
+    void orderPageRunsTwoStatementsRegardlessOfItsSize() throws Exception {
+        createOrder(2);
+        createOrder(3);
+
+        mockMvc.perform(get("/dashboard/orders").param("status", "PENDIENTE"))
+                .andExpect(status().isOk())
+                .andExpect(request().attribute(QueryBudgetFilter.STATEMENTS_ATTRIBUTE, 2));
+    }
+
+    @Test
+    void orderLookupsRunOneStatement() throws Exception {
+        long orderId = createOrder(4);
+
+        mockMvc.perform(get("/dashboard/orders/{orderId}", orderId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(3))
+                .andExpect(request().attribute(QueryBudgetFilter.STATEMENTS_ATTRIBUTE, 1));
+        mockMvc.perform(get("/dashboard/orders/table/{tableNumber}", 4))
+                .andExpect(status().isOk())
+                .andExpect(request().attribute(QueryBudgetFilter.STATEMENTS_ATTRIBUTE, 1));
+    }
+
+    @Test
+    void editingQuantitiesWithTheSameTotalBumpsTheVersion() throws Exception {
+        long orderId = createOrder(9, "{\"plateId\":2,\"quantity\":1},{\"plateId\":5,\"quantity\":3}");
+
+        mockMvc.perform(put("/dashboard/orders/{orderId}", orderId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tableNumber\":9,\"items\":[{\"plateId\":2,\"quantity\":2},{\"plateId\":5,\"quantity\":1}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalPrice").value(30.0))
+                .andExpect(jsonPath("$.version").value(1));
+        mockMvc.perform(get("/dashboard/orders/{orderId}", orderId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1))
+                .andExpect(jsonPath("$.items[?(@.quantity == 2)]").exists());
+
+        mockMvc.perform(put("/dashboard/orders/{orderId}", orderId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tableNumber\":9,\"items\":[{\"plateId\":2,\"quantity\":2}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(2));
+    }
+}
@@ -0,0 +1,64 @@
+package net.andrecarbajal.sysped.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import net.andrecarbajal.sysped.config.QueryBudgetFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(username = "00000000", roles = "JEFE")
+class DashboardTableControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    private long createOrder(int tableNumber, String items) throws Exception {
+        String body = mockMvc.perform(post("/dashboard/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tableNumber\":" + tableNumber + ",\"items\":[" + items + "]}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return ((Number) JsonPath.read(body, "$.id")).longValue();
+    }
+
+    @Test
+    void overviewSummarizesActiveOrdersInOneStatement() throws Exception {
+        long large = createOrder(5, "{\"plateId\":1,\"quantity\":2},{\"plateId\":2,\"quantity\":1},{\"plateId\":3,\"quantity\":1}");
+        long small = createOrder(6, "{\"plateId\":4,\"quantity\":3}");
+        mockMvc.perform(get("/dashboard/tables/overview").param("numbers", "5", "6", "7"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/dashboard/tables/overview").param("numbers", "5", "6", "7"))
+                .andExpect(status().isOk())
+                .andExpect(request().attribute(QueryBudgetFilter.STATEMENTS_ATTRIBUTE, 1))
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].number").value(5))
+                .andExpect(jsonPath("$[0].activeOrder.id").value(large))
+                .andExpect(jsonPath("$[0].activeOrder.tableNumber").value(5))
+                .andExpect(jsonPath("$[0].activeOrder.status").value("PENDIENTE"))
+                .andExpect(jsonPath("$[0].activeOrder.totalPrice").value(78.0))
+                .andExpect(jsonPath("$[0].activeOrder.version").value(0))
+                .andExpect(jsonPath("$[0].activeOrder.itemCount").value(4))
+                .andExpect(jsonPath("$[1].activeOrder.id").value(small))
+                .andExpect(jsonPath("$[1].activeOrder.totalPrice").value(96.0))
+                .andExpect(jsonPath("$[1].activeOrder.itemCount").value(3))
+                .andExpect(jsonPath("$[2].number").value(7))
+                .andExpect(jsonPath("$[2].status").value("DISPONIBLE"))
+                .andExpect(jsonPath("$[2].allowedStatuses").isNotEmpty())
+                .andExpect(jsonPath("$[2].activeOrder").value(nullValue()));
+    }
+}
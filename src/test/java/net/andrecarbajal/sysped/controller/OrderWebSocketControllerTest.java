@@ -0,0 +1,62 @@
+package net.andrecarbajal.sysped.controller;
+
+import net.andrecarbajal.sysped.dto.OrderEventDto;
+import net.andrecarbajal.sysped.event.EventPublisher;
+import net.andrecarbajal.sysped.event.OrderTopics;
+import net.andrecarbajal.sysped.model.OrderStatus;
+import net.andrecarbajal.sysped.service.MenuItem;
+import net.andrecarbajal.sysped.service.MenuSnapshot;
+import net.andrecarbajal.sysped.service.MenuSnapshotService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderWebSocketControllerTest {
+    private EventPublisher eventPublisher;
+    private OrderWebSocketController controller;
+
+    @BeforeEach
+    void setUp() {
+        eventPublisher = mock(EventPublisher.class);
+        MenuSnapshotService menuSnapshotService = mock(MenuSnapshotService.class);
+        when(menuSnapshotService.current()).thenReturn(new MenuSnapshot(1, Map.of(
+                10L, new MenuItem(10L, "Ceviche", BigDecimal.TEN, true, 1L),
+                11L, new MenuItem(11L, "Tiradito", BigDecimal.TEN, true, 1L),
+                20L, new MenuItem(20L, "Chicha", BigDecimal.ONE, true, 2L))));
+        controller = new OrderWebSocketController(eventPublisher, menuSnapshotService);
+    }
+
+    private static OrderEventDto event(OrderEventDto.Type type, OrderStatus status) {
+        return OrderEventDto.builder().orderId(7L).version(2).type(type).changes(Map.of("status", status)).build();
+    }
+
+    @Test
+    void kitchenEventsReachOnlyTheStationsOfTheirPlates() {
+        OrderEventDto created = event(OrderEventDto.Type.CREATED, OrderStatus.PENDIENTE);
+
+        controller.sendOrderEvent(created, List.of(10L, 11L));
+
+        verify(eventPublisher).publish(List.of(OrderTopics.CASHIER, OrderTopics.KITCHEN, OrderTopics.station(1L)), created);
+        verify(eventPublisher, never()).publish(anyString(), any());
+    }
+
+    @Test
+    void paymentsStayWithTheCashier() {
+        OrderEventDto paid = event(OrderEventDto.Type.STATUS_CHANGED, OrderStatus.PAGADO);
+
+        controller.sendOrderEvent(paid, List.of(10L, 20L));
+
+        verify(eventPublisher).publish(List.of(OrderTopics.CASHIER), paid);
+        verify(eventPublisher, never()).publish(anyString(), any());
+    }
+}
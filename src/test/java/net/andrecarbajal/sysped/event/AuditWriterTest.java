@@ -0,0 +1,165 @@
+package net.andrecarbajal.sysped.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.Metamodel;
+import net.andrecarbajal.sysped.model.StaffAudit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuditWriterTest {
+    private static final int BATCH_SIZE = 50;
+    private static final String REJECTED_DNI = "99999999";
+
+    @TempDir
+    Path dir;
+
+    private final List<Object> persisted = new CopyOnWriteArrayList<>();
+    private final List<Integer> transactions = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean databaseDown = new AtomicBoolean();
+    private SimpleMeterRegistry meterRegistry;
+    private Path spillFile;
+    private AuditWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.getMetamodel()).thenReturn(mock(Metamodel.class));
+        List<Object> pending = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            if (databaseDown.get()) {
+                throw new DataAccessResourceFailureException("sin conexión");
+            }
+            if (invocation.getArgument(0) instanceof StaffAudit audit && REJECTED_DNI.equals(audit.getDni())) {
+                throw new DataIntegrityViolationException("valor demasiado largo");
+            }
+            pending.add(invocation.getArgument(0));
+            return null;
+        }).when(entityManager).persist(any());
+        TransactionOperations transactionOperations = new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                pending.clear();
+                T result = action.doInTransaction(new SimpleTransactionStatus());
+                transactions.add(pending.size());
+                persisted.addAll(pending);
+                return result;
+            }
+        };
+        meterRegistry = new SimpleMeterRegistry();
+        spillFile = dir.resolve("audit-spill.jsonl");
+        writer = new AuditWriter(entityManager, transactionOperations, new ObjectMapper().findAndRegisterModules(),
+                meterRegistry, 1000, BATCH_SIZE, Duration.ofMillis(50), spillFile);
+        writer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.stop();
+    }
+
+    private static StaffAudit audit(int n) {
+        StaffAudit audit = new StaffAudit();
+        audit.setDni(String.format("%08d", n));
+        audit.setName("Staff " + n);
+        audit.setAction("UPDATE");
+        audit.setWhenEvent(OffsetDateTime.now());
+        return audit;
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    @Test
+    void recordsAreWrittenInBatches() throws InterruptedException {
+        for (int i = 0; i < 120; i++) {
+            writer.submit(audit(i));
+        }
+
+        awaitUntil(() -> persisted.size() == 120);
+        assertTrue(transactions.size() < 120);
+        assertTrue(transactions.stream().allMatch(size -> size <= BATCH_SIZE));
+        assertEquals(120.0, meterRegistry.get("sysped.audit.written").counter().count());
+        assertFalse(Files.exists(spillFile));
+    }
+
+    @Test
+    void recordsSpillToDiskWhileTheDatabaseIsDownAndReplayLater() throws Exception {
+        databaseDown.set(true);
+        for (int i = 0; i < 3; i++) {
+            writer.submit(audit(i));
+        }
+
+        awaitUntil(() -> Files.exists(spillFile) && meterRegistry.get("sysped.audit.spilled").counter().count() == 3);
+        assertTrue(persisted.isEmpty());
+
+        writer.replaySpilled();
+        assertEquals(3, Files.readAllLines(spillFile).size());
+
+        databaseDown.set(false);
+        writer.replaySpilled();
+
+        assertEquals(3, persisted.size());
+        StaffAudit replayed = (StaffAudit) persisted.get(0);
+        assertNull(replayed.getId());
+        assertEquals("00000000", replayed.getDni());
+        assertEquals("UPDATE", replayed.getAction());
+        assertFalse(Files.exists(spillFile));
+        assertEquals(3.0, meterRegistry.get("sysped.audit.replayed").counter().count());
+    }
+
+    @Test
+    void permanentlyRejectedRowsMoveToTheDeadLetterFileWithoutBlockingTheRest() throws Exception {
+        databaseDown.set(true);
+        writer.submit(audit(0));
+        writer.submit(audit(Integer.parseInt(REJECTED_DNI)));
+        writer.submit(audit(2));
+        writer.submit(audit(3));
+        awaitUntil(() -> meterRegistry.get("sysped.audit.spilled").counter().count() == 4);
+        Files.writeString(spillFile, "{\"type\":\"java.lang.Runtime\",\"record\":{}}\n", StandardOpenOption.APPEND);
+
+        databaseDown.set(false);
+        writer.replaySpilled();
+
+        assertEquals(3, persisted.size());
+        assertFalse(Files.exists(spillFile));
+        Path deadLetters = dir.resolve("audit-spill.jsonl.dead");
+        List<String> dead = Files.readAllLines(deadLetters);
+        assertEquals(2, dead.size());
+        assertTrue(dead.get(0).contains("java.lang.Runtime"));
+        assertTrue(dead.get(1).contains(REJECTED_DNI));
+        assertEquals(2.0, meterRegistry.get("sysped.audit.dead-lettered").counter().count());
+    }
+}
@@ -0,0 +1,170 @@
+package net.andrecarbajal.sysped.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.andrecarbajal.sysped.model.OutboxEvent;
+import net.andrecarbajal.sysped.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class BroadcastCoalescerTest {
+    private long nextId = 1;
+
+    private OutboxEvent event(String destination, String key, String payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(nextId++);
+        event.setDestination(destination);
+        event.setCoalesceKey(key);
+        event.setPayload(payload);
+        event.setCreatedAt(LocalDateTime.now());
+        return event;
+    }
+
+    private OutboxEvent event(List<String> destinations, String payload) {
+        OutboxEvent event = event(destinations.get(0), null, payload);
+        event.setDestinations(destinations);
+        return event;
+    }
+
+    @Test
+    void keepsOnlyTheLatestStatePerKeyAndDestination() {
+        List<OutboxEvent> events = List.of(
+                event("/topic/table-status", "table-1", "{\"number\":1,\"status\":\"ESPERANDO_PEDIDO\"}"),
+                event("/topic/table-status", "summary", "{\"countLibres\":5}"),
+                event("/topic/table-status", "table-2", "{\"number\":2,\"status\":\"DISPONIBLE\"}"),
+                event("/topic/table-status", "table-1", "{\"number\":1,\"status\":\"PEDIDO_ENTREGADO\"}"),
+                event("/topic/table-status", "summary", "{\"countLibres\":4}"));
+
+        List<BroadcastCoalescer.Frame> frames = BroadcastCoalescer.coalesce(events);
+
+        assertEquals(1, frames.size());
+        BroadcastCoalescer.Frame frame = frames.get(0);
+        assertTrue(frame.batched());
+        assertEquals(5, frame.covered().size());
+        assertEquals("[{\"number\":2,\"status\":\"DISPONIBLE\"},"
+                + "{\"number\":1,\"status\":\"PEDIDO_ENTREGADO\"},"
+                + "{\"countLibres\":4}]", frame.body());
+    }
+
+    @Test
+    void dropsIdenticalUnkeyedPayloadsButKeepsDistinctOnes() {
+        List<OutboxEvent> events = List.of(
+                event(OrderTopics.KITCHEN, null, "{\"orderId\":1,\"version\":2}"),
+                event(OrderTopics.KITCHEN, null, "{\"orderId\":1,\"version\":2}"),
+                event(OrderTopics.KITCHEN, null, "{\"orderId\":1,\"version\":3}"));
+
+        BroadcastCoalescer.Frame frame = BroadcastCoalescer.coalesce(events).get(0);
+
+        assertEquals(List.of("{\"orderId\":1,\"version\":2}", "{\"orderId\":1,\"version\":3}"), frame.payloads());
+        assertEquals(3, frame.covered().size());
+    }
+
+    @Test
+    void singlePayloadIsSentAsAPlainFramePerDestination() {
+        List<OutboxEvent> events = List.of(
+                event(OrderTopics.KITCHEN, null, "{\"orderId\":7}"),
+                event("/topic/table-status", "table-3", "{\"number\":3}"));
+
+        List<BroadcastCoalescer.Frame> frames = BroadcastCoalescer.coalesce(events);
+
+        assertEquals(2, frames.size());
+        assertEquals(OrderTopics.KITCHEN, frames.get(0).destination());
+        assertFalse(frames.get(0).batched());
+        assertEquals("{\"orderId\":7}", frames.get(0).body());
+        assertEquals("{\"number\":3}", frames.get(1).body());
+    }
+
+    @Test
+    void burstOfFourNewOrdersGoesOutAsOneFramePerDestination() throws InterruptedException {
+        List<OutboxEvent> burst = new ArrayList<>();
+        for (int table = 1; table <= 4; table++) {
+            String created = "{\"type\":\"CREATED\",\"orderId\":" + table + ",\"version\":0}";
+            burst.add(event(List.of(OrderTopics.KITCHEN, OrderTopics.CASHIER, OrderTopics.station(1L), OrderTopics.station(3L)), created));
+            burst.add(event("/topic/table-status", "table-" + table, "{\"number\":" + table + ",\"status\":\"ESPERANDO_PEDIDO\"}"));
+            burst.add(event("/topic/table-status", "summary", "{\"countLibres\":" + (10 - table) + "}"));
+        }
+        for (long orderId = 1; orderId <= 2; orderId++) {
+            String preparing = "{\"type\":\"STATUS_CHANGED\",\"orderId\":" + orderId + ",\"version\":1}";
+            burst.add(event(List.of(OrderTopics.KITCHEN, OrderTopics.CASHIER), preparing));
+        }
+
+        BlockingQueue<Message<?>> sent = new LinkedBlockingQueue<>();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OutboxDispatcher dispatcher = new OutboxDispatcher(new SimpMessagingTemplate((message, timeout) -> sent.add(message)),
+                mock(OutboxEventRepository.class), new ReplayBuffer(16, "simple"), new NodeIdentity("a"), Optional.empty(),
+                event -> { }, meterRegistry, 100, 50, Duration.ofMillis(50));
+        dispatcher.start();
+        try {
+            dispatcher.enqueue(burst);
+            List<Message<?>> frames = new ArrayList<>();
+            for (Message<?> frame; (frame = sent.poll(500, TimeUnit.MILLISECONDS)) != null; ) {
+                frames.add(frame);
+            }
+            Map<String, String> batchSizes = new TreeMap<>();
+            for (Message<?> frame : frames) {
+                SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(frame);
+                batchSizes.put(headers.getDestination(), headers.getFirstNativeHeader(OutboxDispatcher.BATCH_HEADER));
+            }
+
+            assertEquals(14, burst.size());
+            assertEquals(5, frames.size());
+            assertEquals(Map.of(
+                    OrderTopics.KITCHEN, "6",
+                    OrderTopics.CASHIER, "6",
+                    OrderTopics.station(1L), "4",
+                    OrderTopics.station(3L), "4",
+                    "/topic/table-status", "5"), batchSizes);
+            assertEquals(23.0, meterRegistry.counter("sysped.outbox.messages.saved").count());
+        } finally {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    void rowsForSeveralAudiencesAreMarkedOnlyOnceEveryDestinationSucceeded() throws InterruptedException {
+        OutboxEvent delivered = event(List.of(OrderTopics.CASHIER, OrderTopics.KITCHEN), "{\"orderId\":1}");
+        OutboxEvent partial = event(List.of(OrderTopics.CASHIER, OrderTopics.station(2L)), "{\"orderId\":2}");
+        BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        OutboxEventRepository repository = mock(OutboxEventRepository.class);
+        OutboxDispatcher dispatcher = new OutboxDispatcher(new SimpMessagingTemplate((message, timeout) -> {
+            String destination = SimpMessageHeaderAccessor.wrap(message).getDestination();
+            if (OrderTopics.station(2L).equals(destination)) {
+                throw new MessageDeliveryException("estación caída");
+            }
+            return sent.add(destination);
+        }), repository, new ReplayBuffer(16, "simple"), new NodeIdentity("a"), Optional.empty(),
+                event -> { }, new SimpleMeterRegistry(), 100, 50, Duration.ofMillis(20));
+        dispatcher.start();
+        try {
+            dispatcher.enqueue(List.of(delivered, partial));
+
+            assertEquals(OrderTopics.CASHIER, sent.poll(1, TimeUnit.SECONDS));
+            assertEquals(OrderTopics.KITCHEN, sent.poll(1, TimeUnit.SECONDS));
+            verify(repository, timeout(1000)).markPublished(eq(List.of(delivered.getId())), any());
+        } finally {
+            dispatcher.stop();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package net.andrecarbajal.sysped.event;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+class InProcessBroadcastRelay implements BroadcastRelay {
+    private final Hub hub;
+    private volatile Consumer<RelayedFrame> localDelivery;
+
+    InProcessBroadcastRelay(Hub hub) {
+        this.hub = hub;
+    }
+
+    @Override
+    public void start(Consumer<RelayedFrame> localDelivery) {
+        this.localDelivery = localDelivery;
+        hub.nodes.add(this);
+    }
+
+    @Override
+    public void publish(RelayedFrame frame) {
+        for (InProcessBroadcastRelay node : hub.nodes) {
+            if (node != this) {
+                node.localDelivery.accept(frame);
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        hub.nodes.remove(this);
+    }
+
+    static final class Hub {
+        private final List<InProcessBroadcastRelay> nodes = new CopyOnWriteArrayList<>();
+    }
+}
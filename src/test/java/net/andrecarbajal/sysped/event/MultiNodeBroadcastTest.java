@@ -0,0 +1,212 @@
+package net.andrecarbajal.sysped.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.andrecarbajal.sysped.model.OutboxEvent;
+import net.andrecarbajal.sysped.repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MultiNodeBroadcastTest {
+    private static final String ORDERS = OrderTopics.KITCHEN;
+    private static final Duration MAX_LATENCY = Duration.ofSeconds(1);
+
+    private final List<OutboxDispatcher> dispatchers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        dispatchers.forEach(OutboxDispatcher::stop);
+    }
+
+    private OutboxDispatcher node(String id, BroadcastRelay relay, BlockingQueue<Message<?>> received) {
+        return node(id, relay, received, event -> { });
+    }
+
+    private OutboxDispatcher node(String id, BroadcastRelay relay, BlockingQueue<Message<?>> received,
+                                  ApplicationEventPublisher applicationEventPublisher) {
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> received.add(message));
+        OutboxDispatcher dispatcher = new OutboxDispatcher(template, mock(OutboxEventRepository.class),
+                new ReplayBuffer(16, "simple"), new NodeIdentity(id), Optional.of(relay), applicationEventPublisher,
+                new SimpleMeterRegistry(), 100, 50, Duration.ofMillis(10));
+        dispatcher.start();
+        dispatchers.add(dispatcher);
+        return dispatcher;
+    }
+
+    private OutboxEvent orderCreated(long id, String origin) {
+        return row(id, origin, ORDERS, "{\"type\":\"CREATED\",\"order\":{\"id\":" + id + "}}");
+    }
+
+    private OutboxEvent row(long id, String origin, String destination, String payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setOrigin(origin);
+        event.setDestination(destination);
+        event.setPayload(payload);
+        event.setCreatedAt(LocalDateTime.now());
+        return event;
+    }
+
+    private OutboxPollingRelay pollingRelay(OutboxEventRepository repository, Duration gapTimeout) {
+        return new OutboxPollingRelay(repository, new NodeIdentity("b"), destination -> true, gapTimeout);
+    }
+
+    private static String body(Message<?> message) {
+        return new String((byte[]) message.getPayload(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void orderCreatedOnOneNodeReachesTheKitchenOnAnother() throws InterruptedException {
+        InProcessBroadcastRelay.Hub hub = new InProcessBroadcastRelay.Hub();
+        BlockingQueue<Message<?>> onA = new LinkedBlockingQueue<>();
+        BlockingQueue<Message<?>> onB = new LinkedBlockingQueue<>();
+        OutboxDispatcher nodeA = node("a", new InProcessBroadcastRelay(hub), onA);
+        node("b", new InProcessBroadcastRelay(hub), onB);
+
+        long start = System.nanoTime();
+        nodeA.enqueue(List.of(orderCreated(1, "a")));
+        Message<?> remote = onB.poll(MAX_LATENCY.toMillis(), TimeUnit.MILLISECONDS);
+
+        assertNotNull(remote);
+        assertEquals(ORDERS, SimpMessageHeaderAccessor.getDestination(remote.getHeaders()));
+        assertEquals("{\"type\":\"CREATED\",\"order\":{\"id\":1}}", body(remote));
+        assertEquals("1", SimpMessageHeaderAccessor.wrap(remote).getFirstNativeHeader(OutboxDispatcher.SEQ_HEADER));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(MAX_LATENCY) < 0);
+
+        assertNotNull(onA.poll(MAX_LATENCY.toMillis(), TimeUnit.MILLISECONDS));
+        assertNull(onA.poll(100, TimeUnit.MILLISECONDS));
+        assertNull(onB.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void outboxPollingDeliversForeignRowsOnce() {
+        OutboxEventRepository repository = mock(OutboxEventRepository.class);
+        when(repository.findMaxId()).thenReturn(0L);
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(orderCreated(1, "a"), orderCreated(2, "b")));
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(2L), any(Limit.class)))
+                .thenReturn(List.of(orderCreated(3, "a")))
+                .thenReturn(List.of());
+        OutboxPollingRelay relay = pollingRelay(repository, Duration.ofMinutes(1));
+        List<RelayedFrame> delivered = new ArrayList<>();
+        relay.start(delivered::add);
+
+        relay.poll();
+        relay.poll();
+        relay.poll();
+
+        assertEquals(2, delivered.size());
+        assertEquals("a", delivered.get(0).origin());
+        assertEquals("{\"type\":\"CREATED\",\"order\":{\"id\":1}}", delivered.get(0).body());
+        assertEquals("{\"type\":\"CREATED\",\"order\":{\"id\":3}}", delivered.get(1).body());
+        assertEquals(0, relay.pendingGaps());
+    }
+
+    @Test
+    void rowsCommittedAfterAHigherIdAreStillDelivered() {
+        OutboxEventRepository repository = mock(OutboxEventRepository.class);
+        when(repository.findMaxId()).thenReturn(0L);
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(orderCreated(1, "a"), orderCreated(400, "a")));
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(400L), any(Limit.class))).thenReturn(List.of());
+        when(repository.findByIdInOrderByIdAsc(anyCollection()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(orderCreated(2, "a")))
+                .thenReturn(List.of());
+        OutboxPollingRelay relay = pollingRelay(repository, Duration.ofMinutes(1));
+        List<RelayedFrame> delivered = new ArrayList<>();
+        relay.start(delivered::add);
+
+        relay.poll();
+        assertEquals(398, relay.pendingGaps());
+        relay.poll();
+        relay.poll();
+        relay.poll();
+
+        assertEquals(2, delivered.size());
+        assertEquals(2, delivered.get(0).batchSize());
+        assertEquals("{\"type\":\"CREATED\",\"order\":{\"id\":2}}", delivered.get(1).body());
+        assertEquals(397, relay.pendingGaps());
+    }
+
+    @Test
+    void gapsFromRolledBackTransactionsExpire() {
+        OutboxEventRepository repository = mock(OutboxEventRepository.class);
+        when(repository.findMaxId()).thenReturn(0L);
+        when(repository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class)))
+                .thenReturn(List.of(orderCreated(1, "a"), orderCreated(5, "a")))
+                .thenReturn(List.of());
+        OutboxPollingRelay relay = pollingRelay(repository, Duration.ZERO);
+        relay.start(frame -> { });
+
+        relay.poll();
+
+        assertEquals(0, relay.pendingGaps());
+    }
+
+    @Test
+    void cacheInvalidationsReachOtherNodesWithoutGoingToClients() throws InterruptedException {
+        InProcessBroadcastRelay.Hub hub = new InProcessBroadcastRelay.Hub();
+        BlockingQueue<Message<?>> onA = new LinkedBlockingQueue<>();
+        BlockingQueue<Message<?>> onB = new LinkedBlockingQueue<>();
+        BlockingQueue<Object> eventsOnB = new LinkedBlockingQueue<>();
+        ApplicationEventPublisher listenersOnB = event -> eventsOnB.add(List.of(event, ClusterEvents.isRemote()));
+        ClusterEvents clusterEventsOnB = new ClusterEvents(mock(EventPublisher.class), listenersOnB,
+                new ObjectMapper(), "in-process");
+        OutboxDispatcher nodeA = node("a", new InProcessBroadcastRelay(hub), onA);
+        node("b", new InProcessBroadcastRelay(hub), onB, event -> clusterEventsOnB.onRelayedFrame((RelayedFrame) event));
+
+        nodeA.enqueue(List.of(row(1, "a", ClusterEvents.DESTINATION,
+                "{\"id\":\"x\",\"type\":\"plate-changed\",\"event\":{\"plateId\":7}}")));
+
+        assertEquals(List.of(new PlateChangedEvent(7L), true), eventsOnB.poll(MAX_LATENCY.toMillis(), TimeUnit.MILLISECONDS));
+        assertNull(onA.poll(100, TimeUnit.MILLISECONDS));
+        assertNull(onB.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void remotelyReceivedEventsAreNotForwardedAgain() {
+        EventPublisher eventPublisher = mock(EventPublisher.class);
+        List<Object> published = new ArrayList<>();
+        ClusterEvents[] self = new ClusterEvents[1];
+        self[0] = new ClusterEvents(eventPublisher, event -> {
+            published.add(event);
+            self[0].onPlateChanged((PlateChangedEvent) event);
+        }, new ObjectMapper(), "outbox");
+
+        self[0].onRelayedFrame(new RelayedFrame("a", ClusterEvents.DESTINATION,
+                "[{\"id\":\"x\",\"type\":\"plate-changed\",\"event\":{\"plateId\":7}}]", 1));
+        self[0].onPlateChanged(new PlateChangedEvent(8L));
+
+        assertEquals(List.of(new PlateChangedEvent(7L)), published);
+        verify(eventPublisher, times(1)).publish(eq(ClusterEvents.DESTINATION), any());
+    }
+}
@@ -0,0 +1,102 @@
+package net.andrecarbajal.sysped.event;
+
+import net.andrecarbajal.sysped.dto.ReplayDto;
+import net.andrecarbajal.sysped.dto.ReplayFrameDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.andrecarbajal.sysped.model.OutboxEvent;
+import net.andrecarbajal.sysped.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class ReplayBufferTest {
+    private static final String TOPIC = OrderTopics.KITCHEN;
+
+    @Test
+    void sequencesAreAssignedPerTopic() {
+        ReplayBuffer buffer = new ReplayBuffer(8, "simple");
+
+        assertEquals(1, buffer.append(TOPIC, "{\"a\":1}", false));
+        assertEquals(2, buffer.append(TOPIC, "{\"a\":2}", false));
+        assertEquals(1, buffer.append("/topic/table-status", "{\"b\":1}", false));
+    }
+
+    @Test
+    void replaysOnlyTheMissedFrames() {
+        ReplayBuffer buffer = new ReplayBuffer(8, "simple");
+        for (int i = 1; i <= 5; i++) {
+            buffer.append(TOPIC, "{\"n\":" + i + "}", false);
+        }
+
+        ReplayDto replay = buffer.replay(TOPIC, buffer.getEpoch(), 3);
+
+        assertTrue(replay.isComplete());
+        assertEquals(5, replay.getSeq());
+        assertEquals(List.of(4L, 5L), replay.getFrames().stream().map(ReplayFrameDto::getSeq).toList());
+        assertEquals("{\"n\":4}", replay.getFrames().get(0).getPayload());
+        assertTrue(buffer.replay(TOPIC, buffer.getEpoch(), 5).getFrames().isEmpty());
+    }
+
+    @Test
+    void gapLargerThanTheRingRequiresASnapshot() {
+        ReplayBuffer buffer = new ReplayBuffer(4, "simple");
+        for (int i = 1; i <= 10; i++) {
+            buffer.append(TOPIC, "{\"n\":" + i + "}", false);
+        }
+
+        assertTrue(buffer.replay(TOPIC, buffer.getEpoch(), 6).isComplete());
+        assertEquals(4, buffer.replay(TOPIC, buffer.getEpoch(), 6).getFrames().size());
+
+        ReplayDto tooOld = buffer.replay(TOPIC, buffer.getEpoch(), 5);
+        assertFalse(tooOld.isComplete());
+        assertEquals(10, tooOld.getSeq());
+    }
+
+    @Test
+    void otherEpochOrUnknownTopicRequiresASnapshot() {
+        ReplayBuffer buffer = new ReplayBuffer(8, "simple");
+        buffer.append(TOPIC, "{}", false);
+
+        assertFalse(buffer.replay(TOPIC, buffer.getEpoch() - 1, 1).isComplete());
+        assertFalse(buffer.replay("/topic/other", buffer.getEpoch(), 3).isComplete());
+        assertTrue(buffer.replay("/topic/other", buffer.getEpoch(), 0).isComplete());
+    }
+
+    @Test
+    void brokerRelayModeSendsFramesWithoutSequenceHeaders() throws InterruptedException {
+        ReplayBuffer buffer = new ReplayBuffer(8, "relay");
+        BlockingQueue<Message<?>> sent = new LinkedBlockingQueue<>();
+        OutboxDispatcher dispatcher = new OutboxDispatcher(new SimpMessagingTemplate((message, timeout) -> sent.add(message)),
+                mock(OutboxEventRepository.class), buffer, new NodeIdentity("a"), Optional.empty(),
+                event -> { }, new SimpleMeterRegistry(), 100, 50, Duration.ZERO);
+        OutboxEvent event = new OutboxEvent();
+        event.setId(1L);
+        event.setDestination(TOPIC);
+        event.setPayload("{}");
+        dispatcher.start();
+        try {
+            dispatcher.enqueue(List.of(event));
+            SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(sent.poll(1, TimeUnit.SECONDS));
+
+            assertNull(headers.getFirstNativeHeader(OutboxDispatcher.SEQ_HEADER));
+            assertNull(headers.getFirstNativeHeader(OutboxDispatcher.EPOCH_HEADER));
+            assertFalse(buffer.replay(TOPIC, buffer.getEpoch(), 0).isComplete());
+        } finally {
+            dispatcher.stop();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package net.andrecarbajal.sysped.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CaptchaImagePoolTest {
+    private final CaptchaService captchaService = new CaptchaService("", Duration.ofMinutes(5), 100);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private double gauge() {
+        return meterRegistry.get("sysped.captcha.pool.size").gauge().value();
+    }
+
+    @Test
+    void producerKeepsThePoolFull() throws Exception {
+        CaptchaImagePool pool = new CaptchaImagePool(captchaService, meterRegistry, 8);
+        pool.start();
+        try {
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (gauge() < 8 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(8.0, gauge());
+
+            CaptchaImagePool.Challenge first = pool.take();
+            CaptchaImagePool.Challenge second = pool.take();
+
+            assertNotSame(first, second);
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(first.png()));
+            assertEquals(160, image.getWidth());
+            assertEquals(4, first.code().length());
+            assertEquals(0.0, meterRegistry.get("sysped.captcha.pool.exhausted").counter().count());
+            assertTrue(meterRegistry.get("sysped.captcha.pool.rendered").counter().count() >= 8);
+        } finally {
+            pool.stop();
+        }
+    }
+
+    @Test
+    void emptyPoolRendersOnTheCallerAndCountsExhaustion() throws IOException {
+        CaptchaImagePool pool = new CaptchaImagePool(captchaService, meterRegistry, 4);
+
+        CaptchaImagePool.Challenge challenge = pool.take();
+
+        assertEquals(50, ImageIO.read(new ByteArrayInputStream(challenge.png())).getHeight());
+        assertEquals(1.0, meterRegistry.get("sysped.captcha.pool.exhausted").counter().count());
+    }
+}
@@ -0,0 +1,66 @@
+package net.andrecarbajal.sysped.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CaptchaServiceTest {
+    private final CaptchaService captchaService = new CaptchaService("", Duration.ofMinutes(5), 100);
+
+    @Test
+    void tokenAcceptsItsCodeOnlyOnce() {
+        String token = captchaService.issueToken("Ab3x");
+
+        assertTrue(captchaService.verifyToken(token, "Ab3x"));
+        assertFalse(captchaService.verifyToken(token, "Ab3x"));
+    }
+
+    @Test
+    void wrongOrTamperedAnswersAreRejected() {
+        assertFalse(captchaService.verifyToken(captchaService.issueToken("Ab3x"), "ab3x"));
+        String token = captchaService.issueToken("Ab3x");
+        assertFalse(captchaService.verifyToken(token.replaceFirst("^\\d", "9"), "Ab3x"));
+        assertFalse(captchaService.verifyToken("basura", "Ab3x"));
+        assertFalse(captchaService.verifyToken(null, "Ab3x"));
+        assertFalse(new CaptchaService("", Duration.ofMinutes(5), 100).verifyToken(token, "Ab3x"));
+    }
+
+    @Test
+    void aWrongGuessBurnsTheToken() {
+        String token = captchaService.issueToken("Ab3x");
+
+        assertFalse(captchaService.verifyToken(token, "zzzz"));
+        assertFalse(captchaService.verifyToken(token, "Ab3x"));
+    }
+
+    @Test
+    void sharedSecretLetsAnotherNodeVerify() {
+        CaptchaService nodeA = new CaptchaService("secreto-compartido", Duration.ofMinutes(5), 100);
+        CaptchaService nodeB = new CaptchaService("secreto-compartido", Duration.ofMinutes(5), 100);
+
+        assertTrue(nodeB.verifyToken(nodeA.issueToken("Ab3x"), "Ab3x"));
+    }
+
+    @Test
+    void expiredTokensAreRejected() {
+        CaptchaService expiring = new CaptchaService("", Duration.ZERO, 100);
+
+        assertFalse(expiring.verifyToken(expiring.issueToken("Ab3x"), "Ab3x"));
+    }
+
+    @Test
+    void forgedTokensCannotFlushUsedNonces() {
+        CaptchaService tiny = new CaptchaService("", Duration.ofMinutes(5), 1);
+        String token = tiny.issueToken("Ab3x");
+        assertTrue(tiny.verifyToken(token, "Ab3x"));
+
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(tiny.verifyToken("9999999999999.basura" + i + ".x.y", "Ab3x"));
+        }
+
+        assertFalse(tiny.verifyToken(token, "Ab3x"));
+    }
+}
@@ -0,0 +1,92 @@
+package net.andrecarbajal.sysped.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import net.andrecarbajal.sysped.config.QueryCountInspector;
+import net.andrecarbajal.sysped.event.TableStatusChangedEvent;
+import net.andrecarbajal.sysped.model.RestaurantTable;
+import net.andrecarbajal.sysped.model.TableStatus;
+import net.andrecarbajal.sysped.repository.TableRepository;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogCacheTest {
+    private static final int TABLE_NUMBER = 1;
+
+    @Autowired
+    private TableRepository tableRepository;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private RestaurantTable load() {
+        return transactionOperations.execute(status -> tableRepository.findByNumber(TABLE_NUMBER).orElseThrow());
+    }
+
+    // la consulta por número guarda la fila en su propia región; findById llena la región de la entidad
+    private RestaurantTable loadById(Long id) {
+        return transactionOperations.execute(status -> tableRepository.findById(id).orElseThrow());
+    }
+
+    private int statementsToLoad() {
+        QueryCountInspector.reset();
+        load();
+        return QueryCountInspector.count();
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    @Test
+    void tableStatusChangesEvictTheCachedTable() {
+        RestaurantTable table = load();
+        loadById(table.getId());
+        assertEquals(0, statementsToLoad());
+        assertTrue(cache().containsEntity(RestaurantTable.class, table.getId()));
+
+        catalogCache.onTableStatusChanged(new TableStatusChangedEvent(TABLE_NUMBER, TableStatus.DISPONIBLE, TableStatus.FALTA_ATENCION));
+
+        assertFalse(cache().containsEntity(RestaurantTable.class, table.getId()));
+        assertEquals(1, statementsToLoad());
+        assertEquals(0, statementsToLoad());
+    }
+
+    @Test
+    void versionConflictsEvictTheStaleRowBeforeRetrying() {
+        RestaurantTable table = loadById(load().getId());
+        RetryingTransitionExecutor executor = new RetryingTransitionExecutor(
+                transactionOperations, catalogCache, 3, Duration.ZERO, Duration.ZERO);
+        AtomicInteger attempts = new AtomicInteger();
+
+        executor.run(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                assertTrue(cache().containsEntity(RestaurantTable.class, table.getId()));
+                throw new ObjectOptimisticLockingFailureException(RestaurantTable.class, table.getId());
+            }
+            assertFalse(cache().containsEntity(RestaurantTable.class, table.getId()));
+        });
+
+        assertEquals(2, attempts.get());
+    }
+}
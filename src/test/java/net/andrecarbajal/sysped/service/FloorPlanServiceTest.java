@@ -0,0 +1,102 @@
+package net.andrecarbajal.sysped.service;
+
+import net.andrecarbajal.sysped.dto.FloorPlanDto;
+import net.andrecarbajal.sysped.dto.TableDto;
+import net.andrecarbajal.sysped.event.TableStatusChangedEvent;
+import net.andrecarbajal.sysped.model.RestaurantTable;
+import net.andrecarbajal.sysped.model.TableStatus;
+import net.andrecarbajal.sysped.repository.TableRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FloorPlanServiceTest {
+    private final List<RestaurantTable> tables = new ArrayList<>();
+    private TableRepository tableRepository;
+    private FloorPlanService floorPlanService;
+
+    @BeforeEach
+    void setUp() {
+        for (int number = 1; number <= 20; number++) {
+            RestaurantTable table = new RestaurantTable();
+            table.setNumber(number);
+            table.setStatus(TableStatus.DISPONIBLE);
+            tables.add(table);
+        }
+        tableRepository = mock(TableRepository.class);
+        when(tableRepository.findAll(any(Sort.class))).thenReturn(tables);
+        floorPlanService = new FloorPlanService(tableRepository);
+    }
+
+    @Test
+    void snapshotIsLoadedOnceAndVersionAdvancesPerTransition() {
+        long initial = floorPlanService.getFloorPlan().getVersion();
+
+        floorPlanService.onStatusChanged(new TableStatusChangedEvent(3, TableStatus.DISPONIBLE, TableStatus.ESPERANDO_PEDIDO));
+        FloorPlanDto floorPlan = floorPlanService.getFloorPlan();
+
+        assertEquals(initial + 1, floorPlan.getVersion());
+        assertEquals(TableStatus.ESPERANDO_PEDIDO, floorPlan.getTables().get(2).getStatus());
+        verify(tableRepository, times(1)).findAll(any(Sort.class));
+    }
+
+    @Test
+    void changesSinceReturnsOnlyTheLatestStateOfTouchedTables() {
+        long since = floorPlanService.getFloorPlan().getVersion();
+        floorPlanService.onStatusChanged(new TableStatusChangedEvent(3, TableStatus.DISPONIBLE, TableStatus.ESPERANDO_PEDIDO));
+        floorPlanService.onStatusChanged(new TableStatusChangedEvent(7, TableStatus.DISPONIBLE, TableStatus.FALTA_ATENCION));
+        floorPlanService.onStatusChanged(new TableStatusChangedEvent(3, TableStatus.ESPERANDO_PEDIDO, TableStatus.PEDIDO_ENTREGADO));
+
+        FloorPlanDto delta = floorPlanService.getChangesSince(since);
+
+        assertFalse(delta.isFull());
+        assertEquals(since + 3, delta.getVersion());
+        assertEquals(List.of(
+                new TableDto(3, TableStatus.PEDIDO_ENTREGADO),
+                new TableDto(7, TableStatus.FALTA_ATENCION)), delta.getTables());
+        assertEquals(List.of(), floorPlanService.getChangesSince(delta.getVersion()).getTables());
+    }
+
+    @Test
+    void unknownVersionFallsBackToTheFullFloorPlan() {
+        long current = floorPlanService.getFloorPlan().getVersion();
+        for (int i = 0; i < 300; i++) {
+            TableStatus from = i % 2 == 0 ? TableStatus.DISPONIBLE : TableStatus.ESPERANDO_PEDIDO;
+            TableStatus to = i % 2 == 0 ? TableStatus.ESPERANDO_PEDIDO : TableStatus.DISPONIBLE;
+            floorPlanService.onStatusChanged(new TableStatusChangedEvent(1, from, to));
+        }
+
+        FloorPlanDto tooOld = floorPlanService.getChangesSince(current);
+        FloorPlanDto fromOtherBoot = floorPlanService.getChangesSince(current + 10_000);
+
+        assertTrue(tooOld.isFull());
+        assertEquals(20, tooOld.getTables().size());
+        assertTrue(fromOtherBoot.isFull());
+    }
+
+    @Test
+    void reconcilePublishesTablesChangedWithoutAnEvent() {
+        long since = floorPlanService.getFloorPlan().getVersion();
+        tables.get(4).setStatus(TableStatus.FALTA_ATENCION);
+
+        floorPlanService.reconcile();
+        floorPlanService.reconcile();
+        FloorPlanDto delta = floorPlanService.getChangesSince(since);
+
+        assertFalse(delta.isFull());
+        assertEquals(since + 1, delta.getVersion());
+        assertEquals(List.of(new TableDto(5, TableStatus.FALTA_ATENCION)), delta.getTables());
+    }
+}
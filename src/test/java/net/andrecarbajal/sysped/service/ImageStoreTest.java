@@ -0,0 +1,60 @@
+package net.andrecarbajal.sysped.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageStoreTest {
+    @TempDir
+    Path directory;
+
+    static byte[] png(int width, int height, int type) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, type), "png", output);
+        return output.toByteArray();
+    }
+
+    @Test
+    void storeReportsOnlyTheFilesItCreated() throws IOException {
+        ImageStore imageStore = new ImageStore(directory.toString());
+        byte[] image = png(32, 16, BufferedImage.TYPE_INT_RGB);
+
+        ImageStore.Stored first = imageStore.store(image);
+        ImageStore.Stored second = imageStore.store(image);
+
+        assertEquals(2, first.created().size());
+        assertTrue(first.created().stream().allMatch(Files::exists));
+        assertEquals(first.hash(), second.hash());
+        assertEquals(0, second.created().size());
+    }
+
+    @Test
+    void oversizedImagesAreRejectedFromTheirHeader() throws IOException {
+        ImageStore imageStore = new ImageStore(directory.toString());
+        byte[] image = png(8_000, 6_000, BufferedImage.TYPE_BYTE_BINARY);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> imageStore.store(image));
+
+        assertTrue(error.getMessage().contains("píxeles"));
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void unknownFormatsAreRejected() {
+        ImageStore imageStore = new ImageStore(directory.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> imageStore.store(new byte[]{1, 2, 3}));
+    }
+}
@@ -0,0 +1,58 @@
+package net.andrecarbajal.sysped.service;
+
+import net.andrecarbajal.sysped.repository.PlateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MenuSnapshotServiceTest {
+    private static final MenuItem CEVICHE = new MenuItem(1L, "Ceviche", BigDecimal.TEN, true, 1L);
+    private static final MenuItem CHICHA = new MenuItem(2L, "Chicha", BigDecimal.ONE, true, 3L);
+
+    private PlateRepository plateRepository;
+    private MenuSnapshotService menuSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        plateRepository = mock(PlateRepository.class);
+        when(plateRepository.findMenuItems()).thenReturn(List.of(CEVICHE));
+        when(plateRepository.findMenuItemById(2L)).thenReturn(Optional.of(CHICHA));
+        when(plateRepository.findMenuItemById(99L)).thenReturn(Optional.empty());
+        menuSnapshotService = new MenuSnapshotService(plateRepository);
+    }
+
+    @Test
+    void unknownPlateIdsCostOneRowLookupInsteadOfARebuild() {
+        menuSnapshotService.current();
+
+        for (int i = 0; i < 10; i++) {
+            assertNull(menuSnapshotService.find(99L));
+        }
+
+        verify(plateRepository, times(1)).findMenuItems();
+        verify(plateRepository, times(10)).findMenuItemById(99L);
+    }
+
+    @Test
+    void plateAddedAfterTheSnapshotIsLoadedOnceAndKept() {
+        long version = menuSnapshotService.current().version();
+
+        assertEquals(CHICHA, menuSnapshotService.find(2L));
+        assertEquals(CHICHA, menuSnapshotService.find(2L));
+
+        verify(plateRepository, times(1)).findMenuItemById(2L);
+        verify(plateRepository, times(1)).findMenuItems();
+        assertEquals(version + 1, menuSnapshotService.current().version());
+        assertEquals(CEVICHE, menuSnapshotService.find(1L));
+    }
+}
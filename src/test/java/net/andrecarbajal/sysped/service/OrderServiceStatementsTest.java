@@ -0,0 +1,51 @@
+package net.andrecarbajal.sysped.service;
+
+import net.andrecarbajal.sysped.config.QueryCountInspector;
+import net.andrecarbajal.sysped.dto.OrderCreateRequestDto;
+import net.andrecarbajal.sysped.dto.OrderItemDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@WithMockUser(username = "00000000", roles = "JEFE")
+class OrderServiceStatementsTest {
+    @Autowired
+    private OrderService orderService;
+
+    private static OrderCreateRequestDto order(int tableNumber, int lines) {
+        List<OrderItemDto> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            items.add(OrderItemDto.builder().plateId((long) (i % 5 + 1)).quantity(1).notes("linea " + i).build());
+        }
+        return OrderCreateRequestDto.builder().tableNumber(tableNumber).items(items).build();
+    }
+
+    private int statementsFor(OrderCreateRequestDto request) {
+        QueryCountInspector.reset();
+        orderService.createOrder(request);
+        return QueryCountInspector.count();
+    }
+
+    @Test
+    void createOrderStatementsDoNotGrowWithItsLines() {
+        // calienta la caché de segundo nivel y reserva los bloques de las secuencias agrupadas
+        statementsFor(order(5, 5));
+        statementsFor(order(6, 5));
+
+        int fiveLines = statementsFor(order(7, 5));
+        int fifteenLines = statementsFor(order(8, 15));
+
+        // mesa, personal, pedido, un lote de detalles, 3 filas de outbox (una por evento) y la actualización de la mesa
+        assertEquals(8, fifteenLines);
+        assertEquals(fiveLines, fifteenLines);
+    }
+}
@@ -0,0 +1,76 @@
+package net.andrecarbajal.sysped.service;
+
+import net.andrecarbajal.sysped.repository.PlateRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PlateImageServiceTest {
+    @TempDir
+    Path directory;
+
+    private PlateRepository plateRepository;
+    private ImageStore imageStore;
+    private PlateImageService plateImageService;
+
+    @BeforeEach
+    void setUp() {
+        plateRepository = mock(PlateRepository.class);
+        imageStore = new ImageStore(directory.toString());
+        plateImageService = new PlateImageService(plateRepository, imageStore, mock(JdbcTemplate.class));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private void complete(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+    }
+
+    @Test
+    void rollbackDeletesTheFilesTheUploadCreated() throws Exception {
+        String hash = plateImageService.storeImage(ImageStoreTest.png(32, 16, BufferedImage.TYPE_INT_RGB));
+        assertTrue(Files.exists(imageStore.resolve(hash, ImageStore.Variant.FULL)));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertFalse(Files.exists(imageStore.resolve(hash, ImageStore.Variant.FULL)));
+        assertFalse(Files.exists(imageStore.resolve(hash, ImageStore.Variant.THUMB)));
+    }
+
+    @Test
+    void commitKeepsTheFiles() throws Exception {
+        String hash = plateImageService.storeImage(ImageStoreTest.png(32, 16, BufferedImage.TYPE_INT_RGB));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertTrue(Files.exists(imageStore.resolve(hash, ImageStore.Variant.THUMB)));
+    }
+
+    @Test
+    void rollbackKeepsFilesAnotherPlateAlreadyUses() throws Exception {
+        byte[] image = ImageStoreTest.png(32, 16, BufferedImage.TYPE_INT_RGB);
+        String hash = plateImageService.storeImage(image);
+        when(plateRepository.existsByImageHash(hash)).thenReturn(true);
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertTrue(Files.exists(imageStore.resolve(hash, ImageStore.Variant.FULL)));
+    }
+}
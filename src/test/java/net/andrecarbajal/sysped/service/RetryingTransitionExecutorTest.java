@@ -0,0 +1,58 @@
+package net.andrecarbajal.sysped.service;
+
+import net.andrecarbajal.sysped.model.RestaurantTable;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class RetryingTransitionExecutorTest {
+    private final CatalogCache catalogCache = mock(CatalogCache.class);
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        RetryingTransitionExecutor executor = new RetryingTransitionExecutor(
+                TransactionOperations.withoutTransaction(), catalogCache, 3, Duration.ZERO, Duration.ZERO);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> executor.run(() -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(RestaurantTable.class, 1L);
+        }));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void retriesVersionConflicts() {
+        RetryingTransitionExecutor executor = new RetryingTransitionExecutor(
+                TransactionOperations.withoutTransaction(), catalogCache, 3, Duration.ZERO, Duration.ZERO);
+        AtomicInteger attempts = new AtomicInteger();
+
+        executor.run(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new ObjectOptimisticLockingFailureException(RestaurantTable.class, 1L);
+            }
+        });
+
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void doesNotRetryBusinessErrors() {
+        RetryingTransitionExecutor executor = new RetryingTransitionExecutor(
+                TransactionOperations.withoutTransaction(), catalogCache, 3, Duration.ZERO, Duration.ZERO);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> executor.run(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("Operación no permitida");
+        }));
+        assertEquals(1, attempts.get());
+    }
+}
@@ -0,0 +1,104 @@
+package net.andrecarbajal.sysped.service;
+
+import net.andrecarbajal.sysped.model.OrderStatus;
+import net.andrecarbajal.sysped.model.TableStatus;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class StatusTransitionsTest {
+    private static final int ITERATIONS = 1_000_000;
+
+    @Test
+    void orderTransitionsMatchTheBusinessRules() {
+        for (OrderStatus from : OrderStatus.values()) {
+            Set<OrderStatus> expected = switch (from) {
+                case PENDIENTE -> Set.of(OrderStatus.EN_PREPARACION, OrderStatus.CANCELADO);
+                case EN_PREPARACION -> Set.of(OrderStatus.LISTO, OrderStatus.CANCELADO);
+                case LISTO -> Set.of(OrderStatus.PAGADO);
+                default -> Set.of();
+            };
+            assertEquals(expected, StatusTransitions.ORDER.allowedFrom(from));
+            for (OrderStatus to : OrderStatus.values()) {
+                assertEquals(expected.contains(to), StatusTransitions.ORDER.canTransition(from, to), from + " -> " + to);
+            }
+        }
+    }
+
+    @Test
+    void tableTransitionsMatchTheBusinessRules() {
+        for (TableStatus from : TableStatus.values()) {
+            Set<TableStatus> expected = switch (from) {
+                case DISPONIBLE -> Set.of(TableStatus.FUERA_DE_SERVICIO, TableStatus.ESPERANDO_PEDIDO, TableStatus.DISPONIBLE);
+                case ESPERANDO_PEDIDO -> Set.of(TableStatus.FALTA_ATENCION, TableStatus.PEDIDO_ENTREGADO, TableStatus.DISPONIBLE);
+                case FALTA_ATENCION -> Set.of(TableStatus.DISPONIBLE, TableStatus.PEDIDO_ENTREGADO, TableStatus.ESPERANDO_PEDIDO);
+                case PEDIDO_ENTREGADO -> Set.of(TableStatus.DISPONIBLE, TableStatus.ESPERANDO_PEDIDO, TableStatus.FALTA_ATENCION);
+                case FUERA_DE_SERVICIO -> Set.of(TableStatus.DISPONIBLE);
+            };
+            assertEquals(expected, StatusTransitions.TABLE.allowedFrom(from));
+            for (TableStatus to : TableStatus.values()) {
+                assertEquals(expected.contains(to), StatusTransitions.TABLE.canTransition(from, to), from + " -> " + to);
+            }
+        }
+    }
+
+    @Test
+    void checkRejectsForbiddenTransitions() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> StatusTransitions.ORDER.check(OrderStatus.PAGADO, OrderStatus.PENDIENTE));
+        assertEquals("Operación no permitida: PAGADO -> PENDIENTE", e.getMessage());
+        assertThrows(UnsupportedOperationException.class,
+                () -> StatusTransitions.TABLE.allowedFrom(TableStatus.DISPONIBLE).clear());
+    }
+
+    @Test
+    void tableFollowsOrder() {
+        assertEquals(TableStatus.ESPERANDO_PEDIDO, StatusTransitions.tableStatusFor(OrderStatus.PENDIENTE));
+        assertEquals(TableStatus.PEDIDO_ENTREGADO, StatusTransitions.tableStatusFor(OrderStatus.LISTO));
+        assertEquals(TableStatus.DISPONIBLE, StatusTransitions.tableStatusFor(OrderStatus.PAGADO));
+        assertNull(StatusTransitions.tableStatusFor(OrderStatus.EN_PREPARACION));
+        assertNull(StatusTransitions.tableStatusFor(OrderStatus.CANCELADO));
+    }
+
+    @Test
+    void checksDoNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        OrderStatus[] orders = OrderStatus.values();
+        TableStatus[] tables = TableStatus.values();
+        int allowed = runChecks(orders, tables);
+
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        allowed += runChecks(orders, tables);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(allowed > 0);
+        assertTrue(allocated < 16 * 1024, "Se asignaron " + allocated + " bytes en " + ITERATIONS + " verificaciones");
+        assertSame(StatusTransitions.TABLE.allowedFrom(TableStatus.DISPONIBLE), StatusTransitions.TABLE.allowedFrom(TableStatus.DISPONIBLE));
+        assertFalse(StatusTransitions.ORDER.canTransition(OrderStatus.CANCELADO, OrderStatus.PENDIENTE));
+    }
+
+    private static int runChecks(OrderStatus[] orders, TableStatus[] tables) {
+        int allowed = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            if (StatusTransitions.ORDER.canTransition(orders[i % orders.length], orders[(i / orders.length) % orders.length])) {
+                allowed++;
+            }
+            if (StatusTransitions.TABLE.canTransition(tables[i % tables.length], tables[(i / tables.length) % tables.length])) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+}
@@ -0,0 +1,153 @@
+package net.andrecarbajal.sysped.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.andrecarbajal.sysped.dto.TableSummaryDto;
+import net.andrecarbajal.sysped.event.ClusterEvents;
+import net.andrecarbajal.sysped.event.EventPublisher;
+import net.andrecarbajal.sysped.event.RelayedFrame;
+import net.andrecarbajal.sysped.event.TableStatusChangedEvent;
+import net.andrecarbajal.sysped.model.TableStatus;
+import net.andrecarbajal.sysped.repository.TableRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class TableOccupancyTest {
+    private TableRepository tableRepository;
+    private EventPublisher eventPublisher;
+    private TableOccupancy occupancy;
+
+    @BeforeEach
+    void setUp() {
+        tableRepository = mock(TableRepository.class);
+        eventPublisher = mock(EventPublisher.class);
+        when(tableRepository.countGroupedByStatus()).thenReturn(List.of(
+                new TableStatusCount(TableStatus.DISPONIBLE, 10),
+                new TableStatusCount(TableStatus.ESPERANDO_PEDIDO, 2)));
+        occupancy = new TableOccupancy(tableRepository, eventPublisher);
+        occupancy.seed();
+    }
+
+    @Test
+    void summaryIsServedWithoutQueries() {
+        for (int i = 0; i < 100; i++) {
+            occupancy.summary();
+        }
+
+        verify(tableRepository, times(1)).countGroupedByStatus();
+        verifyNoMoreInteractions(tableRepository);
+        assertEquals(new TableSummaryDto(10, 2, 0, 0), occupancy.summary());
+    }
+
+    @Test
+    void concurrentTransitionsKeepTotalsConsistent() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1_000; i++) {
+            pool.execute(() -> {
+                occupancy.onStatusChanged(new TableStatusChangedEvent(1, TableStatus.DISPONIBLE, TableStatus.ESPERANDO_PEDIDO));
+                occupancy.onStatusChanged(new TableStatusChangedEvent(1, TableStatus.ESPERANDO_PEDIDO, TableStatus.DISPONIBLE));
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(new TableSummaryDto(10, 2, 0, 0), occupancy.summary());
+        verify(eventPublisher, times(2_000)).publish(eq("/topic/table-status"), eq("summary"), any(TableSummaryDto.class));
+    }
+
+    @Test
+    void reconcileCorrectsDriftAndPushesSummary() {
+        when(tableRepository.countGroupedByStatus()).thenReturn(List.of(
+                new TableStatusCount(TableStatus.DISPONIBLE, 9),
+                new TableStatusCount(TableStatus.FALTA_ATENCION, 3)));
+
+        occupancy.reconcile();
+
+        assertEquals(new TableSummaryDto(9, 0, 3, 0), occupancy.summary());
+        verify(eventPublisher).publish("/topic/table-status", "summary", new TableSummaryDto(9, 0, 3, 0));
+    }
+
+    @Test
+    void reconcileWithoutDriftStaysQuiet() {
+        occupancy.reconcile();
+
+        verify(eventPublisher, never()).publish(any(), any(), any());
+    }
+
+    @Test
+    void transitionCommittedBeforeItsListenerRunsIsCountedOnce() {
+        TableStatusChangedEvent event = new TableStatusChangedEvent(1, TableStatus.DISPONIBLE, TableStatus.ESPERANDO_PEDIDO);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            occupancy.onStatusChanging(event);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        when(tableRepository.countGroupedByStatus()).thenReturn(List.of(
+                new TableStatusCount(TableStatus.DISPONIBLE, 9),
+                new TableStatusCount(TableStatus.ESPERANDO_PEDIDO, 3)));
+
+        occupancy.reconcile();
+        occupancy.onStatusChanged(event);
+        occupancy.reconcile();
+
+        assertEquals(new TableSummaryDto(9, 3, 0, 0), occupancy.summary());
+        verify(eventPublisher, times(1)).publish(eq("/topic/table-status"), eq("summary"), any(TableSummaryDto.class));
+    }
+
+    @Test
+    void rolledBackTransitionNoLongerBlocksReconcile() {
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> synchronizations;
+        try {
+            occupancy.onStatusChanging(new TableStatusChangedEvent(1, TableStatus.DISPONIBLE, TableStatus.ESPERANDO_PEDIDO));
+            synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        when(tableRepository.countGroupedByStatus()).thenReturn(List.of(
+                new TableStatusCount(TableStatus.DISPONIBLE, 11),
+                new TableStatusCount(TableStatus.ESPERANDO_PEDIDO, 1)));
+
+        occupancy.reconcile();
+        assertEquals(new TableSummaryDto(10, 2, 0, 0), occupancy.summary());
+
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        occupancy.reconcile();
+        assertEquals(new TableSummaryDto(11, 1, 0, 0), occupancy.summary());
+    }
+
+    @Test
+    void transitionFromAnotherNodeIsRecountedNotReapplied() {
+        ClusterEvents clusterEvents = new ClusterEvents(mock(EventPublisher.class),
+                event -> occupancy.onStatusChanged((TableStatusChangedEvent) event), new ObjectMapper(), "outbox");
+        when(tableRepository.countGroupedByStatus()).thenReturn(List.of(
+                new TableStatusCount(TableStatus.DISPONIBLE, 9),
+                new TableStatusCount(TableStatus.ESPERANDO_PEDIDO, 3)));
+        String transition = "{\"id\":\"x\",\"type\":\"table-status-changed\","
+                + "\"event\":{\"tableNumber\":1,\"from\":\"DISPONIBLE\",\"to\":\"ESPERANDO_PEDIDO\"}}";
+
+        clusterEvents.onRelayedFrame(new RelayedFrame("a", ClusterEvents.DESTINATION, transition, 0));
+        clusterEvents.onRelayedFrame(new RelayedFrame("a", ClusterEvents.DESTINATION, transition, 0));
+
+        assertEquals(new TableSummaryDto(9, 3, 0, 0), occupancy.summary());
+        verify(eventPublisher, never()).publish(any(), any(), any());
+    }
+}
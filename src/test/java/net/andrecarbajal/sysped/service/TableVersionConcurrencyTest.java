@@ -0,0 +1,97 @@
+package net.andrecarbajal.sysped.service;
+
+import net.andrecarbajal.sysped.event.TableStatusChangedEvent;
+import net.andrecarbajal.sysped.model.RestaurantTable;
+import net.andrecarbajal.sysped.model.TableStatus;
+import net.andrecarbajal.sysped.repository.TableRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TableVersionConcurrencyTest {
+    private static final int TABLE_NUMBER = 10;
+
+    @Autowired
+    private TableService tableService;
+
+    @Autowired
+    private TableRepository tableRepository;
+
+    @Autowired
+    private TransitionGate gate;
+
+    @Test
+    void concurrentUpdatesOnOneTableRetryTheLoserAndRejectIt() throws Exception {
+        RestaurantTable before = tableRepository.findByNumber(TABLE_NUMBER).orElseThrow();
+        assertEquals(TableStatus.DISPONIBLE, before.getStatus());
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 2; t++) {
+            futures.add(pool.submit(() -> tableService.updateTableStatus(TABLE_NUMBER, TableStatus.ESPERANDO_PEDIDO)));
+        }
+
+        int succeeded = 0;
+        List<Throwable> failures = new ArrayList<>();
+        for (Future<?> future : futures) {
+            try {
+                future.get(30, TimeUnit.SECONDS);
+                succeeded++;
+            } catch (ExecutionException e) {
+                failures.add(e.getCause());
+            }
+        }
+        pool.shutdown();
+
+        // las dos transacciones leyeron DISPONIBLE antes de que ninguna confirmara
+        assertEquals(2, gate.arrivals.get());
+        assertEquals(1, succeeded);
+        assertEquals(1, failures.size());
+        // sólo el reintento ve ESPERANDO_PEDIDO; sin él el perdedor saldría con un conflicto de versión
+        assertInstanceOf(IllegalStateException.class, failures.get(0));
+
+        RestaurantTable after = tableRepository.findByNumber(TABLE_NUMBER).orElseThrow();
+        assertEquals(TableStatus.ESPERANDO_PEDIDO, after.getStatus());
+        assertEquals(before.getVersion() + 1, after.getVersion());
+    }
+
+    // retiene la primera pasada de cada transacción hasta que ambas hayan leído la mesa
+    static class TransitionGate {
+        private final CyclicBarrier barrier = new CyclicBarrier(2);
+        private final AtomicInteger arrivals = new AtomicInteger();
+
+        @EventListener
+        public void onTableStatusChanged(TableStatusChangedEvent event) throws Exception {
+            if (event.tableNumber() == TABLE_NUMBER && arrivals.incrementAndGet() <= 2) {
+                barrier.await(10, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class GateConfig {
+        @Bean
+        TransitionGate transitionGate() {
+            return new TransitionGate();
+        }
+    }
+}
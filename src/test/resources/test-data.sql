@@ -0,0 +1,18 @@
+INSERT INTO roles (id, name) VALUES (1, 'jefe'), (2, 'administrador'), (3, 'mozo'), (4, 'cocinero'), (5, 'cajero');
+
+INSERT INTO staffs (dni, name, password, rol_id, active)
+VALUES ('00000000', 'Juan', '$2a$10$4jjG.2p6YihIO6fJvRBIhu/c/MkktCruhtUxiuFzT1.iU78i26xBK', 1, TRUE);
+
+INSERT INTO categories (id, name) VALUES (1, 'Plato de carta'), (2, 'Menu'), (3, 'Bebida');
+INSERT INTO subcategories (id, name, category_id) VALUES (1, 'Entrada', 2);
+
+INSERT INTO plates (id, name, description, price, category_id, subcategory_id, active) VALUES
+    (1, 'Lomo saltado', 'Plato de fondo', 28.00, 1, NULL, TRUE),
+    (2, 'Papa a la huancaina', 'Entrada del menu', 12.00, 2, 1, TRUE),
+    (3, 'Chicha morada', 'Jarra', 10.00, 3, NULL, TRUE),
+    (4, 'Ceviche', 'Plato de fondo', 32.00, 1, NULL, TRUE),
+    (5, 'Inca Kola', 'Botella', 6.00, 3, NULL, TRUE);
+
+INSERT INTO tables (number, status, version) VALUES
+    (1, 'DISPONIBLE', 0), (2, 'DISPONIBLE', 0), (3, 'DISPONIBLE', 0), (4, 'DISPONIBLE', 0), (5, 'DISPONIBLE', 0),
+    (6, 'DISPONIBLE', 0), (7, 'DISPONIBLE', 0), (8, 'DISPONIBLE', 0), (9, 'DISPONIBLE', 0), (10, 'DISPONIBLE', 0);